@@ -29,11 +29,19 @@ dependencies {
     testCompileOnly("org.projectlombok:lombok:1.18.42")
     testAnnotationProcessor("org.projectlombok:lombok:1.18.42")
 
-    runtimeOnly("org.postgresql:postgresql")
+    implementation("org.postgresql:postgresql")
 
     implementation("org.liquibase:liquibase-core")
 
     implementation("com.fasterxml.jackson.core:jackson-databind")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-csv")
+    implementation("com.fasterxml.jackson.datatype:jackson-datatype-jsr310")
+    implementation("com.github.luben:zstd-jni:1.5.6-3")
+    implementation("org.apache.poi:poi-ooxml:5.3.0")
+    implementation("org.apache.parquet:parquet-hadoop:1.14.4")
+    implementation("org.apache.hadoop:hadoop-client-api:3.4.1")
+    runtimeOnly("org.apache.hadoop:hadoop-client-runtime:3.4.1")
+    implementation("org.apache.lucene:lucene-core:9.12.0")
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-data-jdbc")
@@ -0,0 +1,113 @@
+package com.dmytrozah.profitsoft.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Slf4j
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    @Value("${books.upload.workers:2}")
+    private int uploadWorkers;
+
+    @Value("${books.upload.queue-capacity:32}")
+    private int uploadQueueCapacity;
+
+    @Value("${books.report.workers:4}")
+    private int reportWorkers;
+
+    @Value("${books.report.queue-capacity:16}")
+    private int reportQueueCapacity;
+
+    @Value("${books.report.partitions:4}")
+    private int reportPartitions;
+
+    @Value("${books.report.reserved-connections:4}")
+    private int reportReservedConnections;
+
+    @Value("${books.streaming.workers:8}")
+    private int streamingWorkers;
+
+    @Value("${books.streaming.queue-capacity:64}")
+    private int streamingQueueCapacity;
+
+    /**
+     * Bounded pool for asynchronous upload jobs. Submissions beyond the queue capacity are rejected
+     * rather than piling up, so callers get an immediate answer instead of an unbounded wait.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor uploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(uploadWorkers);
+        executor.setMaxPoolSize(uploadWorkers);
+        executor.setQueueCapacity(uploadQueueCapacity);
+        executor.setThreadNamePrefix("book-upload-");
+
+        return executor;
+    }
+
+    /**
+     * Pool that generates reports submitted for asynchronous download
+     */
+    @Bean
+    public ThreadPoolTaskExecutor reportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(reportWorkers);
+        executor.setMaxPoolSize(reportWorkers);
+        executor.setQueueCapacity(reportQueueCapacity);
+        executor.setThreadNamePrefix("book-report-");
+
+        return executor;
+    }
+
+    /**
+     * Pool that writes streamed responses, such as report downloads and NDJSON upload results, once
+     * the request thread has been released. Kept apart from the report pool, so that queued
+     * reports never hold back a download.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor streamingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(streamingWorkers);
+        executor.setMaxPoolSize(streamingWorkers);
+        executor.setQueueCapacity(streamingQueueCapacity);
+        executor.setThreadNamePrefix("book-streaming-");
+
+        return executor;
+    }
+
+    /**
+     * Pool that reads the partitions of a partitioned report. Every thread holds a connection while
+     * it reads, so the pool leaves {@code books.report.reserved-connections} of the connection pool
+     * to request threads, including the ones waiting for their report's partitions.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor reportPartitionExecutor(HikariDataSource dataSource) {
+        final int available = dataSource.getMaximumPoolSize() - reportReservedConnections;
+        final int partitions = Math.max(1, Math.min(reportPartitions, available));
+
+        if (partitions < reportPartitions) {
+            log.warn("Report partitions capped at {} by the connection pool size of {} with {} reserved connections",
+                    partitions, dataSource.getMaximumPoolSize(), reportReservedConnections);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(partitions);
+        executor.setMaxPoolSize(partitions);
+        // Every running report queues at most one task per partition
+        executor.setQueueCapacity(reportWorkers * partitions);
+        executor.setThreadNamePrefix("book-report-partition-");
+
+        return executor;
+    }
+}
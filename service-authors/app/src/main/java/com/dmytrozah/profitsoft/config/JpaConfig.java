@@ -2,7 +2,9 @@ package com.dmytrozah.profitsoft.config;
 
 import com.zaxxer.hikari.HikariDataSource;
 import liquibase.integration.spring.SpringLiquibase;
+import org.hibernate.cfg.AvailableSettings;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
@@ -22,6 +24,12 @@ public class JpaConfig {
     @Value("${jdbc.password:root}")
     private String password;
 
+    @Value("${jdbc.batch-size:100}")
+    private int batchSize;
+
+    @Value("${jdbc.pool-size:10}")
+    private int poolSize;
+
     @Bean
     public HikariDataSource dataSource() {
         HikariDataSource ds = new HikariDataSource();
@@ -30,10 +38,24 @@ public class JpaConfig {
         ds.setJdbcUrl(jdbcUrl);
         ds.setUsername(user);
         ds.setPassword(password);
+        ds.setMaximumPoolSize(poolSize);
+
+        // pgjdbc folds a batch of single-row INSERTs into multi-row statements
+        ds.addDataSourceProperty("reWriteBatchedInserts", "true");
 
         return ds;
     }
 
+    @Bean
+    public HibernatePropertiesCustomizer batchingPropertiesCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.put(AvailableSettings.ORDER_INSERTS, true);
+            properties.put(AvailableSettings.ORDER_UPDATES, true);
+            properties.put(AvailableSettings.BATCH_VERSIONED_DATA, true);
+        };
+    }
+
     @Bean
     public SpringLiquibase liquibase() {
         SpringLiquibase liquibase = new SpringLiquibase();
@@ -1,15 +1,31 @@
 package com.dmytrozah.profitsoft.config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
 
 @Configuration
 @ComponentScan(basePackages = "com.dmytrozah.profitsoft.rest.controller")
-public class WebConfig {
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ThreadPoolTaskExecutor streamingExecutor;
+
+    @Value("${books.report.timeout:10m}")
+    private Duration reportTimeout;
+
+    public WebConfig(@Qualifier("streamingExecutor") ThreadPoolTaskExecutor streamingExecutor) {
+        this.streamingExecutor = streamingExecutor;
+    }
 
     @Bean
     public CorsFilter corsFilter(){
@@ -25,4 +41,10 @@ public class WebConfig {
         return new CorsFilter(source);
     }
 
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingExecutor);
+        configurer.setDefaultTimeout(reportTimeout.toMillis());
+    }
+
 }
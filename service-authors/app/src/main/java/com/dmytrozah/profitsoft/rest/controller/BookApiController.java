@@ -1,35 +1,62 @@
 package com.dmytrozah.profitsoft.rest.controller;
 
+import com.dmytrozah.profitsoft.domain.dto.ReportCompression;
+import com.dmytrozah.profitsoft.domain.dto.ReportFormat;
 import com.dmytrozah.profitsoft.domain.dto.ReportGenerationDto;
 import com.dmytrozah.profitsoft.domain.dto.RestResponse;
 import com.dmytrozah.profitsoft.domain.dto.book.BookDetailsDto;
 import com.dmytrozah.profitsoft.domain.dto.book.BookListDto;
 import com.dmytrozah.profitsoft.domain.dto.book.BookSaveDto;
 import com.dmytrozah.profitsoft.domain.dto.book.query.BookQueryDto;
+import com.dmytrozah.profitsoft.domain.dto.book.report.BookReportDto;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadJobDto;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadMode;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadResultsMode;
+import com.dmytrozah.profitsoft.service.BookReport;
+import com.dmytrozah.profitsoft.service.BookReportOptions;
+import com.dmytrozah.profitsoft.service.BookReportService;
 import com.dmytrozah.profitsoft.service.BookService;
+import com.dmytrozah.profitsoft.service.BookUploadJobService;
 import com.dmytrozah.profitsoft.service.BookUploadService;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.apache.tomcat.util.http.fileupload.FileUploadException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/books")
 @RequiredArgsConstructor
 public class BookApiController {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final BookService bookService;
 
     private final BookUploadService uploadService;
 
+    private final BookUploadJobService uploadJobService;
+
+    private final BookReportService reportService;
+
     @PostMapping("_list")
     public BookListDto list(@RequestBody BookQueryDto queryDto){
         return bookService.listQuery(queryDto);
     }
 
+    @GetMapping("_search")
+    public BookListDto search(@RequestParam("q") final String query,
+                              @RequestParam(value = "size", defaultValue = "10") final int size) {
+        return bookService.search(query, size);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public RestResponse createBook(@Valid @RequestBody BookSaveDto bookSaveDto){
@@ -54,15 +81,119 @@ public class BookApiController {
     // MultiPartFile <-> Form data
     @PostMapping("upload")
     @ResponseStatus(HttpStatus.CREATED)
-    public RestResponse uploadFromFile(@RequestParam("file") final MultipartFile file)
+    public RestResponse uploadFromFile(@RequestParam("file") final MultipartFile file,
+                                       @RequestParam(value = "mode", defaultValue = "batch") final String mode,
+                                       @RequestParam(value = "results", defaultValue = "all") final String results,
+                                       @RequestHeader(value = IDEMPOTENCY_KEY, required = false) final String key)
+            throws FileUploadException {
+        return uploadJobService.upload(file, UploadMode.fromValue(mode), UploadResultsMode.fromValue(results), key);
+    }
+
+    @PostMapping(value = "upload", params = "stream=true", produces = "application/x-ndjson")
+    @ResponseStatus(HttpStatus.CREATED)
+    public void streamUpload(@RequestParam("file") final MultipartFile file,
+                             @RequestParam(value = "mode", defaultValue = "batch") final String mode,
+                             @RequestParam(value = "results", defaultValue = "all") final String results,
+                             HttpServletResponse response) throws FileUploadException {
+        uploadService.streamFromFile(file, UploadMode.fromValue(mode), UploadResultsMode.fromValue(results), response);
+    }
+
+    @PostMapping(value = "upload", params = "async=true")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public RestResponse submitUpload(@RequestParam("file") final MultipartFile file,
+                                     @RequestParam(value = "mode", defaultValue = "batch") final String mode,
+                                     @RequestHeader(value = IDEMPOTENCY_KEY, required = false) final String key)
             throws FileUploadException {
-        return uploadService.uploadFromFile(file);
+        return RestResponse.builder()
+                .message(uploadJobService.submit(file, UploadMode.fromValue(mode), key).toString())
+                .build();
     }
 
+    @GetMapping("upload/{jobId}")
+    public BookUploadJobDto getUploadJob(@PathVariable UUID jobId,
+                                         @RequestParam(value = "page", defaultValue = "0") int page,
+                                         @RequestParam(value = "size", defaultValue = "50") int size) {
+        return uploadJobService.getJob(jobId, page, size);
+    }
+
+    /**
+     * An explicit {@code compression} parameter downloads a compressed file, otherwise the report is
+     * sent with the best content coding the client accepts. Formats that compress their content
+     * themselves are always sent as they are. A {@code partitioned} CSV report is read and
+     * formatted in concurrent id ranges.
+     */
     @PostMapping(value = "_report", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    @ResponseStatus(HttpStatus.OK)
-    public void generateReport(@RequestBody(required = false) ReportGenerationDto dto, HttpServletResponse response) {
-        bookService.generateReport(dto, response);
+    public ResponseEntity<StreamingResponseBody> generateReport(
+            @RequestBody(required = false) ReportGenerationDto dto,
+            @RequestParam(value = "format", defaultValue = "csv") final String format,
+            @RequestParam(value = "compression", required = false) final String compression,
+            @RequestParam(value = "partitioned", defaultValue = "false") final boolean partitioned,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+        final ReportFormat reportFormat = ReportFormat.fromValue(format);
+        final ReportCompression resolved = reportFormat.isCompressed() ? ReportCompression.IDENTITY
+                : compression == null ? ReportCompression.negotiate(acceptEncoding)
+                : ReportCompression.fromValue(compression);
+        final BookReport report = reportService.generate(dto,
+                new BookReportOptions(reportFormat, resolved, partitioned));
+
+        if (report.matches(ifNoneMatch)) {
+            return notModified(report);
+        }
+
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .eTag(report.etag())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (compression == null && resolved != ReportCompression.IDENTITY) {
+            response.header(HttpHeaders.CONTENT_ENCODING, resolved.getValue())
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=books" + reportFormat.getFileExtension());
+        } else {
+            response.header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition(report));
+        }
+
+        return response.body(report.body());
+    }
+
+    @PostMapping(value = "_report", params = "async=true")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public RestResponse submitReport(@RequestBody(required = false) ReportGenerationDto dto,
+                                     @RequestParam(value = "format", defaultValue = "csv") final String format,
+                                     @RequestParam(value = "compression", defaultValue = "identity")
+                                     final String compression,
+                                     @RequestParam(value = "partitioned", defaultValue = "false")
+                                     final boolean partitioned) {
+        final ReportFormat reportFormat = ReportFormat.fromValue(format);
+        final ReportCompression resolved = reportFormat.isCompressed() ? ReportCompression.IDENTITY
+                : ReportCompression.fromValue(compression);
+
+        return RestResponse.builder()
+                .message(reportService.submit(dto, new BookReportOptions(reportFormat, resolved, partitioned)))
+                .build();
+    }
+
+    @GetMapping("_report/{reportId}")
+    public BookReportDto getReport(@PathVariable String reportId) {
+        return reportService.getReport(reportId);
+    }
+
+    @GetMapping(value = "_report/{reportId}/content", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> downloadReport(
+            @PathVariable String reportId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+        final BookReport report = reportService.download(reportId);
+
+        if (report.matches(ifNoneMatch)) {
+            return notModified(report);
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .eTag(report.etag())
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition(report))
+                .body(report.body());
     }
 
     @DeleteMapping("{id}")
@@ -70,4 +201,12 @@ public class BookApiController {
     public void delete(@PathVariable long id){
         bookService.delete(id);
     }
+
+    private static ResponseEntity<StreamingResponseBody> notModified(final BookReport report) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(report.etag()).build();
+    }
+
+    private static String contentDisposition(final BookReport report) {
+        return "attachment; filename=" + report.fileName();
+    }
 }
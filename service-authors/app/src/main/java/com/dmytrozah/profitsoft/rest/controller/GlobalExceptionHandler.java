@@ -12,6 +12,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 @Slf4j
 @RestControllerAdvice
@@ -45,6 +46,13 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, "There was an error deserializing the data");
     }
 
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<Object> handleMaxUploadSizeExceeded(final Exception e) {
+        log.warn("MaxUploadSizeExceededException is thrown: {}", e.getMessage());
+
+        return buildErrorResponse(HttpStatus.PAYLOAD_TOO_LARGE, "Uploaded file exceeds the maximum upload size");
+    }
+
     private static ResponseEntity<Object> buildErrorResponse(HttpStatus status, String message){
         ErrorResponse response = new ErrorResponse(status.value(), status.getReasonPhrase(), message);
         return ResponseEntity.status(status.value()).body(response);
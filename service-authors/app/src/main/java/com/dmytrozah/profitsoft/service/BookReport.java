@@ -0,0 +1,42 @@
+package com.dmytrozah.profitsoft.service;
+
+import com.dmytrozah.profitsoft.domain.dto.ReportCompression;
+import com.dmytrozah.profitsoft.domain.dto.ReportFormat;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * A report ready to be sent: its id doubles as a strong entity tag, since it is derived from the
+ * report parameters and the state of the data it covers
+ */
+public record BookReport(String id,
+                         ReportFormat format,
+                         ReportCompression compression,
+                         StreamingResponseBody body) {
+
+    public String etag() {
+        return "\"" + id + "\"";
+    }
+
+    public String fileName() {
+        return "books" + format.getFileExtension() + compression.getFileExtension();
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header lists this report
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String tag : ifNoneMatch.split(",")) {
+            final String candidate = tag.trim();
+
+            if (candidate.equals("*") || candidate.equals(this.etag()) || candidate.equals("W/" + this.etag())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,16 @@
+package com.dmytrozah.profitsoft.service;
+
+import com.dmytrozah.profitsoft.domain.dto.ReportCompression;
+import com.dmytrozah.profitsoft.domain.dto.ReportFormat;
+
+/**
+ * How a report is written, as opposed to which books it covers
+ *
+ * @param partitioned whether id ranges of the catalog are read and formatted concurrently
+ */
+public record BookReportOptions(ReportFormat format, ReportCompression compression, boolean partitioned) {
+
+    public BookReportOptions(ReportFormat format, ReportCompression compression) {
+        this(format, compression, false);
+    }
+}
@@ -0,0 +1,29 @@
+package com.dmytrozah.profitsoft.service;
+
+import com.dmytrozah.profitsoft.domain.dto.ReportGenerationDto;
+import com.dmytrozah.profitsoft.domain.dto.book.report.BookReportDto;
+
+/**
+ * Reports over the book catalog, as CSV, XLSX or Parquet. Generated reports are kept on disk under an id derived from
+ * the report parameters and a watermark of the data in scope, so repeated requests for unchanged
+ * data are answered from the stored artifact.
+ */
+public interface BookReportService {
+
+    /**
+     * The stored report, or a body that streams it from a database cursor while storing it
+     */
+    BookReport generate(ReportGenerationDto dto, BookReportOptions options);
+
+    /**
+     * Starts generating the report in the background unless it is stored or running already
+     *
+     * @return the report id to poll
+     */
+    String submit(ReportGenerationDto dto, BookReportOptions options);
+
+    BookReportDto getReport(String id);
+
+    BookReport download(String id);
+
+}
@@ -1,11 +1,9 @@
 package com.dmytrozah.profitsoft.service;
 
-import com.dmytrozah.profitsoft.domain.dto.ReportGenerationDto;
 import com.dmytrozah.profitsoft.domain.dto.book.BookDetailsDto;
 import com.dmytrozah.profitsoft.domain.dto.book.BookListDto;
 import com.dmytrozah.profitsoft.domain.dto.book.BookSaveDto;
 import com.dmytrozah.profitsoft.domain.dto.book.query.BookQueryDto;
-import jakarta.servlet.http.HttpServletResponse;
 
 public interface BookService {
 
@@ -17,7 +15,11 @@ public interface BookService {
 
     BookListDto listQuery(final BookQueryDto queryDto);
 
-    void delete(long id);
+    /**
+     * Relevance ranked books matching the free text {@code query} by prefix or with typos, read
+     * from the search index rather than the database
+     */
+    BookListDto search(String query, int size);
 
-    void generateReport(ReportGenerationDto dto, HttpServletResponse response);
+    void delete(long id);
 }
@@ -0,0 +1,33 @@
+package com.dmytrozah.profitsoft.service;
+
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadJobDto;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadResultsResponse;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadMode;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadResultsMode;
+import org.apache.tomcat.util.http.fileupload.FileUploadException;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.UUID;
+
+/**
+ * Uploads backed by a persisted job. Retries of an upload, recognized by the client's
+ * {@code Idempotency-Key} or else by the SHA-256, mode and format of the payload, share the job:
+ * a completed job answers from its stored results and an interrupted one resumes after its last
+ * committed chunk. A job only stores the results its first request asked for. Replayed responses
+ * are flagged, a deliberate re-import within {@code books.upload.idempotency-ttl} needs a fresh key.
+ */
+public interface BookUploadJobService {
+
+    UUID submit(final MultipartFile file, final UploadMode mode) throws FileUploadException;
+
+    UUID submit(final MultipartFile file, final UploadMode mode, final String idempotencyKey)
+            throws FileUploadException;
+
+    BookUploadResultsResponse upload(final MultipartFile file,
+                                     final UploadMode mode,
+                                     final UploadResultsMode resultsMode,
+                                     final String idempotencyKey) throws FileUploadException;
+
+    BookUploadJobDto getJob(UUID id, int page, int size);
+
+}
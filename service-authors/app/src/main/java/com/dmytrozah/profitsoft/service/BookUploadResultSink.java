@@ -0,0 +1,28 @@
+package com.dmytrozah.profitsoft.service;
+
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadResultDto;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadResultsMode;
+
+import java.util.List;
+
+/**
+ * Receives upload results chunk by chunk, in input order, once the chunk has been written
+ */
+@FunctionalInterface
+public interface BookUploadResultSink {
+
+    /**
+     * @param results the chunk's results for the outcomes included by {@link #resultsMode()}
+     * @param successfulUploads rows of the chunk that were uploaded
+     * @param failedUploads rows of the chunk that were not uploaded
+     */
+    void accept(List<BookUploadResultDto> results, int successfulUploads, int failedUploads);
+
+    /**
+     * Results the sink is interested in; rows left out are only counted and never mapped
+     */
+    default UploadResultsMode resultsMode() {
+        return UploadResultsMode.ALL;
+    }
+
+}
@@ -1,11 +1,38 @@
 package com.dmytrozah.profitsoft.service;
 
-import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadResultsResponse;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadFormat;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadMode;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadResultsMode;
+import jakarta.servlet.http.HttpServletResponse;
 import org.apache.tomcat.util.http.fileupload.FileUploadException;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 public interface BookUploadService {
 
-    BookUploadResultsResponse uploadFromFile(final MultipartFile file) throws FileUploadException;
+    /**
+     * Uploads the file and writes the results to the response as NDJSON while the rows are stored.
+     * The last line holds the counts; a stream without it was interrupted by an error.
+     */
+    void streamFromFile(final MultipartFile file,
+                        final UploadMode mode,
+                        final UploadResultsMode resultsMode,
+                        final HttpServletResponse response) throws FileUploadException;
+
+    void upload(final InputStream in,
+                final BookUploadFormat format,
+                final UploadMode mode,
+                final BookUploadResultSink sink) throws IOException;
+
+    /**
+     * Uploads the rows following the first {@code skipRows} ones, which a previous attempt has already stored
+     */
+    void upload(final InputStream in,
+                final BookUploadFormat format,
+                final UploadMode mode,
+                final long skipRows,
+                final BookUploadResultSink sink) throws IOException;
 
 }
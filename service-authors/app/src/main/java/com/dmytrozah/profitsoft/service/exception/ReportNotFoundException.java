@@ -0,0 +1,14 @@
+package com.dmytrozah.profitsoft.service.exception;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ReportNotFoundException extends EntityNotFoundException {
+
+    public ReportNotFoundException(String id) {
+        super("Requested report %s not found.".formatted(id));
+    }
+
+}
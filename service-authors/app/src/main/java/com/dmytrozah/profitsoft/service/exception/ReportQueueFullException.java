@@ -0,0 +1,13 @@
+package com.dmytrozah.profitsoft.service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ReportQueueFullException extends RuntimeException {
+
+    public ReportQueueFullException(Exception e) {
+        super("Too many reports are being generated, please retry later", e);
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.dmytrozah.profitsoft.service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class SearchIndexUnavailableException extends RuntimeException {
+
+    public SearchIndexUnavailableException() {
+        super("Book search index is not available yet, please retry later");
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.dmytrozah.profitsoft.service.exception;
+
+import jakarta.persistence.EntityExistsException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.UUID;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class UploadInProgressException extends EntityExistsException {
+
+    public UploadInProgressException(UUID id) {
+        super("The same upload is still being processed by job %s, please retry later".formatted(id));
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.dmytrozah.profitsoft.service.exception;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.UUID;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class UploadJobNotFoundException extends EntityNotFoundException {
+
+    public UploadJobNotFoundException(UUID id) {
+        super("Requested upload job %s not found.".formatted(id));
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.dmytrozah.profitsoft.service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class UploadQueueFullException extends RuntimeException {
+
+    public UploadQueueFullException(Exception e) {
+        super("Too many uploads are queued, please retry later", e);
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.dmytrozah.profitsoft.service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class UploadTooLargeException extends RuntimeException {
+
+    public UploadTooLargeException(DataSize maxSize) {
+        super("Uploaded file exceeds the maximum size of %d MB".formatted(maxSize.toMegabytes()));
+    }
+
+}
@@ -13,9 +13,11 @@ import com.dmytrozah.profitsoft.service.exception.InvalidAuthorNameException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.OptionalLong;
 
 @Service
 @RequiredArgsConstructor
@@ -27,6 +29,10 @@ public class AuthorServiceImpl implements BookAuthorService {
 
     private final AuthorMapper authorMapper;
 
+    private final TableStatistics tableStatistics;
+
+    private final BookSearchIndex searchIndex;
+
     @Override
     public long createAuthor(final AuthorSaveDto saveDto) {
         final AuthorNameDto nameDto = saveDto.getName();
@@ -68,15 +74,29 @@ public class AuthorServiceImpl implements BookAuthorService {
 
     @Override
     public AuthorListDto query(final AuthorQueryDto queryDto) {
-        final Page<BookAuthorData> page = repository.findAll(
-                PageRequest.of(queryDto.getPage(), queryDto.getSize())
-        );
+        final PageRequest pageRequest = PageRequest.of(queryDto.getPage(), queryDto.getSize());
+
+        if (!Boolean.FALSE.equals(queryDto.getWithTotal())) {
+            final Page<BookAuthorData> page = repository.findAll(pageRequest);
+
+            return AuthorListDto.builder()
+                    .totalPages(page.getTotalPages())
+                    .hasNext(page.hasNext())
+                    .list(page.getContent().stream().map(authorMapper::toInfoDto).toList())
+                    .build();
+        }
+
+        final Slice<BookAuthorData> slice = repository.findAllBy(pageRequest);
+        final OptionalLong estimate = Boolean.TRUE.equals(queryDto.getApproximateTotal())
+                ? tableStatistics.estimatedRows("book_author_data") : OptionalLong.empty();
 
-        final List<AuthorInfoDto> infos = page.getContent().stream()
+        final List<AuthorInfoDto> infos = slice.getContent().stream()
                 .map(authorMapper::toInfoDto).toList();
 
         return AuthorListDto.builder()
-                .totalPages(page.getTotalPages())
+                .totalPages(estimate.isPresent()
+                        ? (int) ((estimate.getAsLong() + queryDto.getSize() - 1) / queryDto.getSize()) : null)
+                .hasNext(slice.hasNext())
                 .list(infos)
                 .build();
     }
@@ -84,6 +104,7 @@ public class AuthorServiceImpl implements BookAuthorService {
     @Override
     public void delete(long id) {
         repository.delete(getOrThrow(id));
+        searchIndex.deleteByAuthor(id);
     }
 
     private BookAuthorData fromDto(AuthorSaveDto authorSaveDto) {
@@ -0,0 +1,258 @@
+package com.dmytrozah.profitsoft.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over the stored (title, author canonical name) pairs, used to skip the database
+ * lookup for books that certainly do not exist yet. A negative answer is exact; a positive one
+ * only means the pair has to be checked against the database.
+ * <p>
+ * Every write path registers the pairs it stores, and they reach the filter once the transaction
+ * commits. Deleted or renamed pairs cannot be removed from the filter and stay as false positives
+ * until the next rebuild at startup.
+ */
+@Slf4j
+@Component
+public class BookExistenceIndex {
+
+    private static final String SELECT_PAIRS = "SELECT title, author_canonical_name FROM books";
+
+    private static final String COUNT_BOOKS = "SELECT count(*) FROM books";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${books.existence-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${books.existence-index.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${books.existence-index.fpp:0.01}")
+    private double falsePositiveProbability;
+
+    @Value("${books.existence-index.fetch-size:10000}")
+    private int fetchSize;
+
+    private volatile BloomFilter filter;
+
+    // Pairs stored while the filter is being built, replayed into it once it is ready
+    private List<String> pending = new ArrayList<>();
+
+    public BookExistenceIndex(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Whether a book with the given title and author may already exist. Until the filter is
+     * built every pair is reported as possibly existing.
+     */
+    public boolean mightContain(final String title, final String authorCanonicalName) {
+        final BloomFilter current = this.filter;
+
+        return current == null || current.mightContain(key(title, authorCanonicalName));
+    }
+
+    public void add(final String title, final String authorCanonicalName) {
+        this.addAll(List.of(new Pair(title, authorCanonicalName)));
+    }
+
+    public void addAll(final Collection<Pair> pairs) {
+        if (!enabled || pairs.isEmpty()) {
+            return;
+        }
+
+        final List<String> keys = pairs.stream()
+                .map(pair -> key(pair.title(), pair.authorCanonicalName()))
+                .toList();
+
+        this.afterCommit(() -> keys.forEach(this::put));
+    }
+
+    // Rolled back writes never reach the filter
+    private void afterCommit(final Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private void put(final String key) {
+        final BloomFilter current = this.filter;
+
+        if (current != null) {
+            current.put(key);
+            return;
+        }
+
+        synchronized (this) {
+            if (this.filter == null) {
+                pending.add(key);
+            } else {
+                this.filter.put(key);
+            }
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            synchronized (this) {
+                pending = null;
+            }
+
+            log.info("Book existence index is disabled, every duplicate check goes to the database");
+            return;
+        }
+
+        final long start = System.currentTimeMillis();
+
+        final BloomFilter built = transactionTemplate.execute(status -> {
+            final Long count = jdbcTemplate.queryForObject(COUNT_BOOKS, Long.class);
+            final BloomFilter bloomFilter = new BloomFilter(
+                    Math.max(expectedInsertions, 2 * (count == null ? 0 : count)), falsePositiveProbability
+            );
+
+            // Cursor-based fetch, the transaction keeps autocommit off
+            jdbcTemplate.query(con -> {
+                final PreparedStatement statement = con.prepareStatement(SELECT_PAIRS);
+                statement.setFetchSize(fetchSize);
+
+                return statement;
+            }, rs -> {
+                bloomFilter.put(key(rs.getString(1), rs.getString(2)));
+            });
+
+            return bloomFilter;
+        });
+
+        synchronized (this) {
+            pending.forEach(built::put);
+            pending = null;
+
+            this.filter = built;
+        }
+
+        log.info("Built book existence index over {} pairs in {} ms",
+                built.insertions(), System.currentTimeMillis() - start);
+    }
+
+    public record Pair(String title, String authorCanonicalName) {
+    }
+
+    private static String key(final String title, final String authorCanonicalName) {
+        return title + '\u001F' + authorCanonicalName;
+    }
+
+    /**
+     * Lock-free Bloom filter with double hashing over a 64-bit FNV-1a hash of the key
+     */
+    private static final class BloomFilter {
+        private final AtomicLongArray bits;
+
+        private final long bitCount;
+
+        private final int hashFunctions;
+
+        private final long capacity;
+
+        private final AtomicLong insertions = new AtomicLong();
+
+        private BloomFilter(long capacity, double falsePositiveProbability) {
+            final double ln2 = Math.log(2);
+            final long size = (long) Math.ceil(-capacity * Math.log(falsePositiveProbability) / (ln2 * ln2));
+
+            this.capacity = capacity;
+            this.bits = new AtomicLongArray(Math.toIntExact((size + Long.SIZE - 1) / Long.SIZE));
+            this.bitCount = (long) bits.length() * Long.SIZE;
+            this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / capacity * ln2));
+        }
+
+        private void put(String key) {
+            final long hash = hash(key);
+            final int h1 = (int) hash;
+            final int h2 = (int) (hash >>> 32);
+
+            for (int i = 1; i <= hashFunctions; i++) {
+                final long bit = index(h1, h2, i);
+                final int word = (int) (bit >>> 6);
+                final long mask = 1L << bit;
+
+                long current;
+                while (((current = bits.get(word)) & mask) == 0
+                        && !bits.compareAndSet(word, current, current | mask)) {
+                    Thread.onSpinWait();
+                }
+            }
+
+            if (insertions.incrementAndGet() == capacity + 1) {
+                log.warn("Book existence index exceeded its capacity of {} pairs, false positives will grow "
+                        + "until the next restart", capacity);
+            }
+        }
+
+        private boolean mightContain(String key) {
+            final long hash = hash(key);
+            final int h1 = (int) hash;
+            final int h2 = (int) (hash >>> 32);
+
+            for (int i = 1; i <= hashFunctions; i++) {
+                final long bit = index(h1, h2, i);
+
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private long insertions() {
+            return insertions.get();
+        }
+
+        private long index(int h1, int h2, int i) {
+            final long combined = h1 + (long) i * h2;
+
+            return Math.floorMod(combined, bitCount);
+        }
+
+        private static long hash(String key) {
+            long hash = 0xcbf29ce484222325L;
+
+            for (int i = 0; i < key.length(); i++) {
+                hash ^= key.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.dmytrozah.profitsoft.service.impl;
+
+import com.dmytrozah.profitsoft.domain.dto.book.BookInfoDto;
+import com.dmytrozah.profitsoft.domain.entity.BookData;
+import com.dmytrozah.profitsoft.service.exception.SearchIndexUnavailableException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * In-memory Lucene index over the books, answering search-as-you-type queries without a database
+ * round trip. Every query term has to match the title, author or genres exactly, as a prefix or
+ * within a small edit distance; a four-digit term also matches the publication year.
+ * <p>
+ * The index is rebuilt from the database at startup. Write paths register the books they store
+ * or delete once their transaction commits, and searches see those changes after at most
+ * {@code books.search-index.max-staleness}.
+ */
+@Slf4j
+@Component
+public class BookSearchIndex {
+
+    private static final String SELECT_BOOKS =
+            "SELECT id, author_id, title, author_canonical_name, genres, publication FROM books";
+
+    private static final String ID = "id";
+
+    private static final String AUTHOR_ID = "author_id";
+
+    private static final String TITLE = "title";
+
+    private static final String AUTHOR = "author";
+
+    private static final String GENRES = "genres";
+
+    private static final String YEAR = "year";
+
+    private static final String[] SEARCHED_FIELDS = {TITLE, AUTHOR, GENRES};
+
+    private static final float[] FIELD_BOOSTS = {3f, 2f, 1f};
+
+    // Shorter terms have too many neighbours within one edit to be worth a fuzzy match
+    private static final int FUZZY_MIN_LENGTH = 4;
+
+    private static final int MAX_TERMS = 16;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    private final Directory directory = new ByteBuffersDirectory();
+
+    private final IndexWriter writer;
+
+    private final SearcherManager searcherManager;
+
+    private final ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+
+    // Also switched off when the index could not be built, so that changes stop piling up
+    private volatile boolean enabled;
+
+    @Value("${books.search-index.fetch-size:10000}")
+    private int fetchSize;
+
+    private volatile boolean ready;
+
+    // Changes committed while the index is being built, replayed into it once it is ready
+    private List<IndexChange> pending = new ArrayList<>();
+
+    public BookSearchIndex(JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${books.search-index.enabled:true}") boolean enabled,
+                           @Value("${books.search-index.max-staleness:1s}") Duration maxStaleness) throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transactionTemplate.setReadOnly(true);
+
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+
+        if (!enabled) {
+            this.reopenThread = null;
+            return;
+        }
+
+        this.reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager,
+                maxStaleness.toMillis() / 1000.0, 0.025);
+        this.reopenThread.setName("book-search-reopen");
+        this.reopenThread.setDaemon(true);
+        this.reopenThread.start();
+    }
+
+    /**
+     * Indexed columns of one book
+     */
+    public record Entry(long id, Long authorId, String title, String authorCanonicalName, String genres,
+                        LocalDate publication) {
+
+        public static Entry of(BookData book) {
+            return new Entry(book.getId(), book.getAuthor() == null ? null : book.getAuthor().getId(),
+                    book.getTitle(), book.getAuthorCanonicalName(), book.getGenres(), book.getPublication());
+        }
+    }
+
+    public record SearchResult(List<BookInfoDto> books, long totalHits) {
+    }
+
+    public void index(final BookData book) {
+        this.index(List.of(Entry.of(book)));
+    }
+
+    public void index(final Collection<Entry> entries) {
+        if (!enabled || entries.isEmpty()) {
+            return;
+        }
+
+        final List<Entry> copy = List.copyOf(entries);
+
+        this.afterCommit(indexWriter -> {
+            for (Entry entry : copy) {
+                indexWriter.updateDocument(new Term(ID, Long.toString(entry.id())), document(entry));
+            }
+        });
+    }
+
+    public void delete(final long id) {
+        if (enabled) {
+            this.afterCommit(indexWriter -> indexWriter.deleteDocuments(new Term(ID, Long.toString(id))));
+        }
+    }
+
+    /**
+     * Removes the books deleted together with their author
+     */
+    public void deleteByAuthor(final long authorId) {
+        if (enabled) {
+            this.afterCommit(indexWriter -> indexWriter.deleteDocuments(new Term(AUTHOR_ID, Long.toString(authorId))));
+        }
+    }
+
+    public SearchResult search(final String text, final int limit) {
+        if (!ready) {
+            throw new SearchIndexUnavailableException();
+        }
+
+        try {
+            final Query query = this.query(text);
+
+            if (query == null) {
+                return new SearchResult(List.of(), 0);
+            }
+
+            final IndexSearcher searcher = searcherManager.acquire();
+
+            try {
+                final TopDocs top = searcher.search(query, limit);
+                final StoredFields storedFields = searcher.storedFields();
+                final List<BookInfoDto> books = new ArrayList<>(top.scoreDocs.length);
+
+                for (ScoreDoc hit : top.scoreDocs) {
+                    final Document doc = storedFields.document(hit.doc);
+                    final IndexableField authorId = doc.getField(AUTHOR_ID);
+
+                    books.add(new BookInfoDto(
+                            Long.parseLong(doc.get(ID)),
+                            doc.get(TITLE),
+                            doc.get(AUTHOR),
+                            authorId == null ? 0 : authorId.numericValue().longValue()
+                    ));
+                }
+
+                return new SearchResult(books, top.totalHits.value);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            this.disable();
+
+            log.info("Book search index is disabled");
+            return;
+        }
+
+        final long start = System.currentTimeMillis();
+
+        try {
+            final long books = transactionTemplate.execute(status -> {
+                final long[] count = {0};
+
+                // Cursor-based fetch, the transaction keeps autocommit off
+                jdbcTemplate.query(con -> {
+                    final PreparedStatement statement = con.prepareStatement(SELECT_BOOKS);
+                    statement.setFetchSize(fetchSize);
+
+                    return statement;
+                }, rs -> {
+                    final Date publication = rs.getDate("publication");
+                    final long authorId = rs.getLong("author_id");
+
+                    final Entry entry = new Entry(rs.getLong("id"), rs.wasNull() ? null : authorId,
+                            rs.getString("title"), rs.getString("author_canonical_name"), rs.getString("genres"),
+                            publication == null ? null : publication.toLocalDate());
+
+                    try {
+                        writer.updateDocument(new Term(ID, Long.toString(entry.id())), document(entry));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+
+                    count[0]++;
+                });
+
+                return count[0];
+            });
+
+            synchronized (this) {
+                for (IndexChange change : pending) {
+                    change.apply(writer);
+                }
+
+                pending = null;
+            }
+
+            searcherManager.maybeRefreshBlocking();
+            ready = true;
+
+            log.info("Built book search index over {} books in {} ms", books, System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            this.disable();
+
+            log.error("Could not build the book search index, searches stay unavailable", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (reopenThread != null) {
+            reopenThread.close();
+        }
+
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    // Drops the changes waiting for the build together with whatever it has indexed so far
+    private void disable() {
+        synchronized (this) {
+            enabled = false;
+            pending = null;
+        }
+
+        try {
+            writer.deleteAll();
+        } catch (IOException e) {
+            log.warn("Could not clear the book search index: {}", e.getMessage());
+        }
+    }
+
+    // Rolled back writes never reach the index
+    private void afterCommit(final IndexChange change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    BookSearchIndex.this.apply(change);
+                }
+            });
+        } else {
+            this.apply(change);
+        }
+    }
+
+    private void apply(final IndexChange change) {
+        synchronized (this) {
+            if (!enabled) {
+                return;
+            }
+
+            if (pending != null) {
+                pending.add(change);
+                return;
+            }
+        }
+
+        try {
+            change.apply(writer);
+        } catch (IOException e) {
+            log.warn("Could not update the book search index, it is stale until the next restart: {}",
+                    e.getMessage());
+        }
+    }
+
+    private Query query(final String text) throws IOException {
+        final List<String> terms = this.terms(text);
+
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        final BooleanQuery.Builder all = new BooleanQuery.Builder();
+
+        for (String term : terms) {
+            final BooleanQuery.Builder any = new BooleanQuery.Builder();
+
+            for (int i = 0; i < SEARCHED_FIELDS.length; i++) {
+                final Term fieldTerm = new Term(SEARCHED_FIELDS[i], term);
+                final float boost = FIELD_BOOSTS[i];
+
+                any.add(new BoostQuery(new TermQuery(fieldTerm), 2 * boost), BooleanClause.Occur.SHOULD);
+                any.add(new BoostQuery(new PrefixQuery(fieldTerm), boost), BooleanClause.Occur.SHOULD);
+
+                if (term.length() >= FUZZY_MIN_LENGTH) {
+                    final int maxEdits = term.length() > 6 ? 2 : 1;
+
+                    any.add(new BoostQuery(new FuzzyQuery(fieldTerm, maxEdits, 1), boost / 2),
+                            BooleanClause.Occur.SHOULD);
+                }
+            }
+
+            if (term.length() == 4 && term.chars().allMatch(Character::isDigit)) {
+                any.add(new TermQuery(new Term(YEAR, term)), BooleanClause.Occur.SHOULD);
+            }
+
+            all.add(any.build(), BooleanClause.Occur.MUST);
+        }
+
+        return all.build();
+    }
+
+    private List<String> terms(final String text) throws IOException {
+        final List<String> terms = new ArrayList<>();
+
+        if (text == null) {
+            return terms;
+        }
+
+        try (TokenStream tokens = analyzer.tokenStream(TITLE, text)) {
+            final CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+
+            while (tokens.incrementToken() && terms.size() < MAX_TERMS) {
+                terms.add(term.toString());
+            }
+
+            tokens.end();
+        }
+
+        return terms;
+    }
+
+    private static Document document(final Entry entry) {
+        final Document doc = new Document();
+
+        doc.add(new StringField(ID, Long.toString(entry.id()), Field.Store.YES));
+
+        if (entry.authorId() != null) {
+            doc.add(new StoredField(AUTHOR_ID, entry.authorId()));
+            doc.add(new StringField(AUTHOR_ID, Long.toString(entry.authorId()), Field.Store.NO));
+        }
+
+        if (entry.title() != null) {
+            doc.add(new TextField(TITLE, entry.title(), Field.Store.YES));
+        }
+
+        if (entry.authorCanonicalName() != null) {
+            doc.add(new TextField(AUTHOR, entry.authorCanonicalName(), Field.Store.YES));
+        }
+
+        if (entry.genres() != null) {
+            doc.add(new TextField(GENRES, entry.genres(), Field.Store.NO));
+        }
+
+        if (entry.publication() != null) {
+            doc.add(new StringField(YEAR, Integer.toString(entry.publication().getYear()), Field.Store.NO));
+        }
+
+        return doc;
+    }
+
+    @FunctionalInterface
+    private interface IndexChange {
+        void apply(IndexWriter writer) throws IOException;
+    }
+}
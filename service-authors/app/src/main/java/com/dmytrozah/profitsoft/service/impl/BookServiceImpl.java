@@ -1,12 +1,13 @@
 package com.dmytrozah.profitsoft.service.impl;
 
-import com.dmytrozah.profitsoft.domain.dto.ReportGenerationDto;
 import com.dmytrozah.profitsoft.domain.dto.author.AuthorDetailsDto;
 import com.dmytrozah.profitsoft.domain.dto.book.BookDetailsDto;
 import com.dmytrozah.profitsoft.domain.dto.book.BookInfoDto;
 import com.dmytrozah.profitsoft.domain.dto.book.BookListDto;
 import com.dmytrozah.profitsoft.domain.dto.book.BookSaveDto;
+import com.dmytrozah.profitsoft.domain.dto.book.query.BookQueryCursor;
 import com.dmytrozah.profitsoft.domain.dto.book.query.BookQueryDto;
+import com.dmytrozah.profitsoft.domain.dto.book.query.BookSortAttribute;
 import com.dmytrozah.profitsoft.domain.entity.BookAuthorData;
 import com.dmytrozah.profitsoft.domain.entity.BookData;
 import com.dmytrozah.profitsoft.domain.entity.mapper.AuthorMapper;
@@ -16,26 +17,26 @@ import com.dmytrozah.profitsoft.domain.repository.spec.BookSpecifications;
 import com.dmytrozah.profitsoft.service.BookAuthorService;
 import com.dmytrozah.profitsoft.service.BookService;
 import com.dmytrozah.profitsoft.service.exception.BookNotFoundException;
-import com.dmytrozah.profitsoft.service.exception.ReportGenerationException;
-import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BookServiceImpl implements BookService {
+    private static final int MAX_SEARCH_SIZE = 100;
+
     private final AuthorMapper authorMapper;
 
     private final BookMapper bookMapper;
@@ -44,11 +45,22 @@ public class BookServiceImpl implements BookService {
 
     private final BookAuthorService authorService;
 
+    private final BookExistenceIndex existenceIndex;
+
+    private final TableStatistics tableStatistics;
+
+    private final BookSearchIndex searchIndex;
+
     @Override
     public long createBook(BookSaveDto bookSaveDto) {
         this.validateBook(bookSaveDto);
 
-        return bookRepository.save(this.fromSaveDto(bookSaveDto)).getId();
+        final BookData saved = bookRepository.save(this.fromSaveDto(bookSaveDto));
+
+        existenceIndex.add(saved.getTitle(), saved.getAuthorCanonicalName());
+        searchIndex.index(saved);
+
+        return saved.getId();
     }
 
     @Override
@@ -67,56 +79,131 @@ public class BookServiceImpl implements BookService {
 
     @Override
     public BookListDto listQuery(BookQueryDto queryDto) {
-        Pageable pageable = PageRequest.of(
-                queryDto.getPage(),
-                queryDto.getSize()
-        );
+        final BookSortAttribute sortAttribute = Objects.requireNonNullElse(queryDto.getSort(), BookSortAttribute.ID);
+        // Search results keep the relevance order of the specification unless a sort is requested
+        final boolean ranked = sortAttribute == BookSortAttribute.ID
+                && BookSpecifications.searchTerms(queryDto.getFilters()) != null;
+        final Sort sort = ranked ? Sort.unsorted()
+                : sortAttribute == BookSortAttribute.ID ? Sort.by("id")
+                : Sort.by(sortAttribute.getAttribute(), "id");
+
+        if (ranked && queryDto.getCursor() != null) {
+            throw new IllegalArgumentException("Relevance ranked search results cannot be read with a cursor");
+        }
 
         Specification<BookData> spec = BookSpecifications.fromQuery(queryDto);
 
-        Page<BookData> page = bookRepository.findAll(spec, pageable);
+        final int size = queryDto.getSize();
+        final boolean withTotal = !Boolean.FALSE.equals(queryDto.getWithTotal());
+        List<BookData> books;
+        boolean hasNext;
+        Integer totalPages = null;
+
+        if (queryDto.getCursor() == null && withTotal) {
+            Page<BookData> page = bookRepository.findAll(spec, PageRequest.of(queryDto.getPage(), size, sort));
+
+            books = page.getContent();
+            hasNext = page.hasNext();
+            totalPages = page.getTotalPages();
+        } else {
+            final BookQueryCursor cursor = queryDto.getCursor() == null ? null
+                    : this.decodeCursor(queryDto.getCursor(), sortAttribute);
+            // Seeks past the cursor instead of skipping the rows of the previous pages
+            final Specification<BookData> window = cursor == null ? spec : spec.and(BookSpecifications.after(cursor));
+            final ScrollPosition position = queryDto.getCursor() != null || queryDto.getPage() == 0
+                    ? ScrollPosition.offset() : ScrollPosition.offset((long) queryDto.getPage() * size - 1);
+
+            // Reads one row more than requested to know whether there is a next page
+            final Window<BookData> result = bookRepository.findBy(window,
+                    query -> query.sortBy(sort).limit(size).scroll(position));
+
+            books = result.getContent();
+            hasNext = result.hasNext();
+
+            // Books without a sort value come last, they are read once the seek range is exhausted
+            if (!hasNext && cursor != null && cursor.sort() != BookSortAttribute.ID && cursor.value() != null) {
+                final Specification<BookData> missing = spec.and(BookSpecifications.withoutValue(sortAttribute));
+                final int remaining = size - books.size();
+
+                if (remaining == 0) {
+                    hasNext = bookRepository.exists(missing);
+                } else {
+                    final Window<BookData> tail = bookRepository.findBy(missing,
+                            query -> query.sortBy(Sort.by("id")).limit(remaining).scroll(ScrollPosition.offset()));
+
+                    books = Stream.concat(books.stream(), tail.getContent().stream()).toList();
+                    hasNext = tail.hasNext();
+                }
+            }
+
+            if (withTotal) {
+                totalPages = totalPages(bookRepository.count(spec), size);
+            } else if (Boolean.TRUE.equals(queryDto.getApproximateTotal()) && this.isUnfiltered(queryDto)) {
+                final OptionalLong estimate = tableStatistics.estimatedRows("books");
 
-        List<BookInfoDto> dtos = page.stream().map(bookMapper::toInfoDto).toList();
+                totalPages = estimate.isPresent() ? totalPages(estimate.getAsLong(), size) : null;
+            }
+        }
+
+        List<BookInfoDto> dtos = books.stream().map(bookMapper::toInfoDto).toList();
 
         return BookListDto.builder()
-                .totalPages(page.getTotalPages())
+                .totalPages(totalPages)
+                .hasNext(hasNext)
                 .infos(dtos)
+                .nextCursor(hasNext && !ranked
+                        ? this.cursorAfter(books.get(books.size() - 1), sortAttribute).encode() : null)
+                .build();
+    }
+
+    @Override
+    public BookListDto search(String query, int size) {
+        if (size < 1 || size > MAX_SEARCH_SIZE) {
+            throw new IllegalArgumentException("Search size must be between 1 and " + MAX_SEARCH_SIZE);
+        }
+
+        final BookSearchIndex.SearchResult result = searchIndex.search(query, size);
+
+        return BookListDto.builder()
+                .infos(result.books())
+                .hasNext(result.totalHits() > size)
                 .build();
     }
 
     @Override
     public void delete(long id) {
         bookRepository.delete(getOrThrow(id));
+        searchIndex.delete(id);
     }
 
-    @Override
-    public void generateReport(ReportGenerationDto dto, HttpServletResponse response) {
-        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
-        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=books.csv");
+    private BookQueryCursor decodeCursor(final String encoded, final BookSortAttribute sort) {
+        final BookQueryCursor cursor = BookQueryCursor.decode(encoded);
 
-        try {
-            StringBuilder builder = new StringBuilder();
-            List<BookData> books;
+        if (cursor.sort() != sort) {
+            throw new IllegalArgumentException("Cursor was issued for sort " + cursor.sort());
+        }
 
-            books = dto == null ? bookRepository.findAll() :
-                    bookRepository.findAllByAuthorId(dto.getAuthorId());
+        return cursor;
+    }
 
-            builder.append("Title,Author\n");
+    private boolean isUnfiltered(final BookQueryDto queryDto) {
+        return (queryDto.getAuthorId() == null || queryDto.getAuthorId().equals("-1"))
+                && (queryDto.getFilters() == null || queryDto.getFilters().isEmpty());
+    }
 
-            for (BookData book : books) {
-                final BookAuthorData authorData = book.getAuthor();
+    private static int totalPages(final long rows, final int size) {
+        return (int) ((rows + size - 1) / size);
+    }
 
-                builder.append(book.getTitle())
-                        .append(",").append(authorData.getName())
-                        .append("\n");
-            }
+    private BookQueryCursor cursorAfter(final BookData book, final BookSortAttribute sort) {
+        final Object value = switch (sort) {
+            case ID -> null;
+            case TITLE -> book.getTitle();
+            case PUBLICATION -> book.getPublication();
+            case LAST_UPDATE_TIME -> book.getLastUpdateTime();
+        };
 
-            final OutputStream outputStream = response.getOutputStream();
-            outputStream.write(builder.toString().getBytes());
-            outputStream.flush();
-        } catch (IOException e) {
-            throw new ReportGenerationException(e);
-        }
+        return new BookQueryCursor(sort, book.getId(), value == null ? null : value.toString());
     }
 
     private BookData getOrThrow(final long id) {
@@ -139,6 +226,9 @@ public class BookServiceImpl implements BookService {
 
         bookRepository.save(data);
         bookRepository.flush();
+
+        existenceIndex.add(data.getTitle(), data.getAuthorCanonicalName());
+        searchIndex.index(data);
     }
 
     private BookData fromSaveDto(BookSaveDto saveDto) {
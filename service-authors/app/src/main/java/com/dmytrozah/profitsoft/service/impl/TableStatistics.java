@@ -0,0 +1,30 @@
+package com.dmytrozah.profitsoft.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.OptionalLong;
+
+/**
+ * Row counts estimated by PostgreSQL for its planner. They are as fresh as the last
+ * {@code ANALYZE} or autovacuum run and cost a catalog lookup instead of a table scan.
+ */
+@Component
+@RequiredArgsConstructor
+public class TableStatistics {
+
+    private static final String ESTIMATED_ROWS = "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Estimated number of rows, empty for tables that have never been analyzed
+     */
+    public OptionalLong estimatedRows(final String table) {
+        final Long rows = jdbcTemplate.query(ESTIMATED_ROWS, rs -> rs.next() ? rs.getLong(1) : null, table);
+
+        // reltuples is -1 until the first ANALYZE
+        return rows == null || rows < 0 ? OptionalLong.empty() : OptionalLong.of(rows);
+    }
+}
@@ -0,0 +1,32 @@
+package com.dmytrozah.profitsoft.service.impl.report;
+
+import com.dmytrozah.profitsoft.domain.BookReportRow;
+import com.dmytrozah.profitsoft.domain.dto.ReportColumn;
+import com.dmytrozah.profitsoft.domain.dto.ReportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Writes report rows in one {@link ReportFormat}. Rows come straight from a database cursor and
+ * are read once; implementations must not collect them.
+ */
+public interface BookReportFormatter {
+
+    ReportFormat format();
+
+    /**
+     * Columns written when the request does not select any
+     */
+    default List<ReportColumn> defaultColumns() {
+        return List.of(ReportColumn.values());
+    }
+
+    /**
+     * Writes the given columns of every row; the stream is flushed but left open
+     */
+    void write(List<ReportColumn> columns, Iterator<BookReportRow> rows, OutputStream out) throws IOException;
+
+}
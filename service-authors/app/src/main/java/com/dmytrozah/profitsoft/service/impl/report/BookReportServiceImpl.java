@@ -0,0 +1,219 @@
+package com.dmytrozah.profitsoft.service.impl.report;
+
+import com.dmytrozah.profitsoft.domain.BookReportWatermark;
+import com.dmytrozah.profitsoft.domain.dto.ReportGenerationDto;
+import com.dmytrozah.profitsoft.domain.dto.book.report.BookReportDto;
+import com.dmytrozah.profitsoft.domain.dto.book.report.ReportStatus;
+import com.dmytrozah.profitsoft.domain.repository.BookRepository;
+import com.dmytrozah.profitsoft.domain.repository.spec.BookSpecifications;
+import com.dmytrozah.profitsoft.service.BookReport;
+import com.dmytrozah.profitsoft.service.BookReportOptions;
+import com.dmytrozah.profitsoft.service.BookReportService;
+import com.dmytrozah.profitsoft.service.exception.ReportNotFoundException;
+import com.dmytrozah.profitsoft.service.exception.ReportQueueFullException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookReportServiceImpl implements BookReportService {
+
+    // Part of every report id, bump it whenever the report layout changes
+    private static final String REPORT_VERSION = "v2";
+
+    private final BookRepository bookRepository;
+
+    private final BookReportWriter reportWriter;
+
+    private final BookReportStore store;
+
+    private final TaskExecutor reportExecutor;
+
+    // Reports generated in the background; once stored they are looked up in the store instead
+    private final Map<String, BookReportDto> running = new ConcurrentHashMap<>();
+
+    // Failures are reported like stored reports until they expire, a new submit starts over
+    private final Map<String, FailedReport> failed = new ConcurrentHashMap<>();
+
+    @Value("${books.report.cache-ttl:1h}")
+    private Duration cacheTtl;
+
+    @Override
+    public BookReport generate(final ReportGenerationDto dto, final BookReportOptions options) {
+        final String id = this.reportId(dto, options);
+
+        return store.find(id)
+                .map(stored -> new BookReport(id, options.format(), options.compression(),
+                        out -> Files.copy(stored.path(), out)))
+                .orElseGet(() -> new BookReport(id, options.format(), options.compression(),
+                        out -> this.generate(dto, options, id, out)));
+    }
+
+    @Override
+    public String submit(final ReportGenerationDto dto, final BookReportOptions options) {
+        final String id = this.reportId(dto, options);
+
+        if (store.find(id).isPresent()) {
+            return id;
+        }
+
+        final BookReportDto pending = BookReportDto.builder().id(id).status(ReportStatus.RUNNING).build();
+
+        // A running report is joined, a failed one is started again
+        if (running.putIfAbsent(id, pending) != null) {
+            return id;
+        }
+
+        failed.remove(id);
+
+        try {
+            reportExecutor.execute(() -> this.run(dto, options, id));
+        } catch (TaskRejectedException e) {
+            running.remove(id);
+
+            throw new ReportQueueFullException(e);
+        }
+
+        return id;
+    }
+
+    @Override
+    public BookReportDto getReport(final String id) {
+        final BookReportDto current = running.get(id);
+
+        if (current != null) {
+            return current;
+        }
+
+        this.evictFailed();
+
+        final FailedReport failure = failed.get(id);
+
+        if (failure != null) {
+            return failure.report();
+        }
+
+        return store.find(id)
+                .map(stored -> BookReportDto.builder()
+                        .id(id)
+                        .status(ReportStatus.COMPLETED)
+                        .size(size(stored.path()))
+                        .build())
+                .orElseThrow(() -> new ReportNotFoundException(id));
+    }
+
+    @Override
+    public BookReport download(final String id) {
+        return store.find(id)
+                .map(stored -> new BookReport(id, stored.format(), stored.compression(),
+                        out -> Files.copy(stored.path(), out)))
+                .orElseThrow(() -> new ReportNotFoundException(id));
+    }
+
+    private void run(final ReportGenerationDto dto, final BookReportOptions options, final String id) {
+        try {
+            this.generate(dto, options, id, null);
+
+            running.remove(id);
+        } catch (Exception e) {
+            log.error("Report {} failed", id, e);
+
+            this.evictFailed();
+
+            failed.put(id, new FailedReport(BookReportDto.builder()
+                    .id(id)
+                    .status(ReportStatus.FAILED)
+                    .error(e.getMessage())
+                    .build(), Instant.now()));
+            running.remove(id);
+        }
+    }
+
+    // Failed ids are rarely submitted again, the watermark in them changes with every book write
+    private void evictFailed() {
+        final Instant threshold = Instant.now().minus(cacheTtl);
+
+        failed.values().removeIf(failure -> failure.failedAt().isBefore(threshold));
+    }
+
+    /**
+     * Writes the report into a new artifact and, when a response is given, to the response at the
+     * same time. The artifact is only published once it is complete.
+     */
+    private void generate(final ReportGenerationDto dto,
+                          final BookReportOptions options,
+                          final String id,
+                          final OutputStream response) throws IOException {
+        final Path temp = store.createTemp(id);
+
+        try {
+            try (OutputStream artifact = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                reportWriter.write(dto, options,
+                        response == null ? artifact : new TeeOutputStream(response, artifact));
+            }
+
+            store.publish(temp, id, options.format(), options.compression());
+        } catch (IOException | RuntimeException e) {
+            store.delete(temp);
+
+            throw e;
+        }
+    }
+
+    private String reportId(final ReportGenerationDto dto, final BookReportOptions options) {
+        final ReportGenerationDto query = dto == null ? new ReportGenerationDto() : dto;
+        final BookReportWatermark watermark = bookRepository.findReportWatermark(BookSpecifications.fromReport(query));
+
+        final String key = String.join("|",
+                REPORT_VERSION,
+                "author=" + query.getAuthorId(),
+                "filters=" + query.getFilters().stream()
+                        .map(filter -> filter.attribute() + ":" + filter.value())
+                        .collect(Collectors.joining(",")),
+                "columns=" + query.getColumns(),
+                options.format().getValue(),
+                options.compression().getValue(),
+                options.partitioned() ? "partitioned" : "sequential",
+                String.valueOf(watermark.lastUpdateTime()),
+                String.valueOf(watermark.rows()));
+
+        try {
+            final byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Long size(final Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private record FailedReport(BookReportDto report, Instant failedAt) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.dmytrozah.profitsoft.service.impl.report;
+
+import com.dmytrozah.profitsoft.domain.dto.ReportCompression;
+import com.dmytrozah.profitsoft.domain.dto.ReportFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Generated reports kept on disk under their report id. An artifact only becomes visible once it
+ * has been written completely; artifacts not read for {@code books.report.cache-ttl} are evicted.
+ */
+@Slf4j
+@Component
+public class BookReportStore {
+
+    private static final Pattern REPORT_ID = Pattern.compile("[0-9a-f]{64}");
+
+    @Value("${books.report.cache-dir:${java.io.tmpdir}/book-reports}")
+    private Path cacheDir;
+
+    @Value("${books.report.cache-ttl:1h}")
+    private Duration cacheTtl;
+
+    Optional<StoredReport> find(final String id) {
+        if (!REPORT_ID.matcher(id).matches()) {
+            return Optional.empty();
+        }
+
+        for (ReportFormat format : ReportFormat.values()) {
+            for (ReportCompression compression : ReportCompression.values()) {
+                final Path path = this.path(id, format, compression);
+
+                if (Files.isRegularFile(path)) {
+                    this.touch(path);
+
+                    return Optional.of(new StoredReport(path, format, compression));
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    Path createTemp(final String prefix) throws IOException {
+        Files.createDirectories(cacheDir);
+
+        return Files.createTempFile(cacheDir, prefix, ".tmp");
+    }
+
+    void publish(final Path temp,
+                 final String id,
+                 final ReportFormat format,
+                 final ReportCompression compression) throws IOException {
+        Files.move(temp, this.path(id, format, compression),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        this.evictExpired();
+    }
+
+    void delete(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete report artifact {}: {}", path, e.getMessage());
+        }
+    }
+
+    private Path path(final String id, final ReportFormat format, final ReportCompression compression) {
+        return cacheDir.resolve(id + format.getFileExtension() + compression.getFileExtension());
+    }
+
+    private void touch(final Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            log.debug("Could not touch report artifact {}: {}", path, e.getMessage());
+        }
+    }
+
+    // Artifacts of outdated watermarks are never read again and age out here
+    private void evictExpired() {
+        final Instant threshold = Instant.now().minus(cacheTtl);
+
+        try (DirectoryStream<Path> artifacts = Files.newDirectoryStream(cacheDir)) {
+            for (Path artifact : artifacts) {
+                if (Files.getLastModifiedTime(artifact).toInstant().isBefore(threshold)) {
+                    this.delete(artifact);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not evict expired report artifacts: {}", e.getMessage());
+        }
+    }
+
+    record StoredReport(Path path, ReportFormat format, ReportCompression compression) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.dmytrozah.profitsoft.service.impl.report;
+
+import com.dmytrozah.profitsoft.domain.BookReportRow;
+import com.dmytrozah.profitsoft.domain.dto.ReportColumn;
+import com.dmytrozah.profitsoft.domain.dto.ReportFormat;
+import com.dmytrozah.profitsoft.domain.dto.ReportGenerationDto;
+import com.dmytrozah.profitsoft.domain.entity.BookData;
+import com.dmytrozah.profitsoft.domain.repository.BookRepository;
+import com.dmytrozah.profitsoft.domain.repository.spec.BookSpecifications;
+import com.dmytrozah.profitsoft.service.BookReportOptions;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Writes the book report straight from a database cursor through the {@link BookReportFormatter}
+ * of the requested format, so memory use does not depend on the size of the catalog. Only the
+ * books matching the report filters are read, and only the selected columns are selected.
+ */
+@Component
+public class BookReportWriter {
+
+    private final BookRepository bookRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReportCompressor compressor;
+
+    private final PartitionedReportWriter partitionedWriter;
+
+    private final Map<ReportFormat, BookReportFormatter> formatters = new EnumMap<>(ReportFormat.class);
+
+    public BookReportWriter(BookRepository bookRepository,
+                            TransactionTemplate transactionTemplate,
+                            ReportCompressor compressor,
+                            PartitionedReportWriter partitionedWriter,
+                            List<BookReportFormatter> formatters) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transactionTemplate.setReadOnly(true);
+        this.compressor = compressor;
+        this.partitionedWriter = partitionedWriter;
+
+        formatters.forEach(formatter -> this.formatters.put(formatter.format(), formatter));
+    }
+
+    public void write(final ReportGenerationDto dto,
+                      final BookReportOptions options,
+                      final OutputStream out) throws IOException {
+        final BookReportFormatter formatter = formatters.get(options.format());
+
+        if (formatter == null) {
+            throw new IllegalArgumentException("Unsupported report format " + options.format().getValue());
+        }
+
+        final ReportGenerationDto query = dto == null ? new ReportGenerationDto() : dto;
+        final Specification<BookData> spec = BookSpecifications.fromReport(query);
+        final List<ReportColumn> columns = query.getColumns().isEmpty() ? formatter.defaultColumns()
+                : query.getColumns().stream().distinct().toList();
+
+        // Formats that cannot be concatenated are always written from a single cursor
+        if (options.partitioned() && formatter instanceof ConcatenableReportFormatter concatenable) {
+            partitionedWriter.write(spec, columns, concatenable, options.compression(), out);
+            return;
+        }
+
+        // Closing the compressed stream finishes its frame, the response stream itself stays open
+        try (OutputStream target = compressor.compress(options.compression(), StreamUtils.nonClosing(out))) {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<BookReportRow> books = bookRepository.streamReportRows(spec, columns)) {
+                    formatter.write(columns, books.iterator(), target);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.dmytrozah.profitsoft.service.impl.report;
+
+import com.dmytrozah.profitsoft.domain.BookReportRow;
+import com.dmytrozah.profitsoft.domain.dto.ReportColumn;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Formatter whose output can be produced in independent parts: the header once, then the rows
+ * of each part, concatenated in order
+ */
+public interface ConcatenableReportFormatter extends BookReportFormatter {
+
+    void writeHeader(List<ReportColumn> columns, OutputStream out) throws IOException;
+
+    void writeRows(List<ReportColumn> columns, Iterator<BookReportRow> rows, OutputStream out) throws IOException;
+
+    @Override
+    default void write(List<ReportColumn> columns, Iterator<BookReportRow> rows, OutputStream out)
+            throws IOException {
+        this.writeHeader(columns, out);
+        this.writeRows(columns, rows, out);
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.dmytrozah.profitsoft.service.impl.report;
+
+import com.dmytrozah.profitsoft.domain.BookReportRow;
+import com.dmytrozah.profitsoft.domain.dto.ReportColumn;
+import com.dmytrozah.profitsoft.domain.dto.ReportFormat;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+public class CsvReportFormatter implements ConcatenableReportFormatter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public ReportFormat format() {
+        return ReportFormat.CSV;
+    }
+
+    @Override
+    public List<ReportColumn> defaultColumns() {
+        return List.of(ReportColumn.TITLE, ReportColumn.AUTHOR_CANONICAL_NAME);
+    }
+
+    @Override
+    public void writeHeader(final List<ReportColumn> columns, final OutputStream out) throws IOException {
+        final String header = columns.stream().map(ReportColumn::getHeader).collect(Collectors.joining(","));
+
+        out.write((header + '\n').getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    @Override
+    public void writeRows(final List<ReportColumn> columns,
+                          final Iterator<BookReportRow> rows,
+                          final OutputStream out) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        while (rows.hasNext()) {
+            final BookReportRow book = rows.next();
+
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+
+                appendCsv(writer, value(book, columns.get(i)));
+            }
+
+            writer.write('\n');
+        }
+
+        writer.flush();
+    }
+
+    private static String value(final BookReportRow book, final ReportColumn column) {
+        return switch (column) {
+            case TITLE -> book.title();
+            case AUTHOR_CANONICAL_NAME -> book.authorCanonicalName();
+            case GENRES -> book.genres();
+            case PUBLICATION -> book.publication() == null ? null : book.publication().toString();
+            case LAST_UPDATE_TIME -> book.lastUpdateTime() == null ? null : book.lastUpdateTime().toString();
+        };
+    }
+
+    /**
+     * Quotes a value only when it contains a separator, a quote or a line break
+     */
+    static Writer appendCsv(final Writer writer, final String value) throws IOException {
+        if (value == null) {
+            return writer;
+        }
+
+        boolean quote = false;
+
+        for (int i = 0; i < value.length() && !quote; i++) {
+            final char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!quote) {
+            writer.write(value);
+            return writer;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+
+        return writer;
+    }
+}
@@ -0,0 +1,114 @@
+package com.dmytrozah.profitsoft.service.impl.report;
+
+import com.dmytrozah.profitsoft.domain.BookReportRow;
+import com.dmytrozah.profitsoft.domain.dto.ReportColumn;
+import com.dmytrozah.profitsoft.domain.dto.ReportFormat;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Types;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar report with typed columns: {@code publication} as DATE, {@code last_update_time} as a
+ * UTC millisecond TIMESTAMP and {@code genres} as a list of strings. The schema holds only the
+ * selected columns. Rows are buffered only up to {@code books.report.parquet-row-group-size}
+ * before a row group is written out.
+ */
+@Component
+public class ParquetReportFormatter implements BookReportFormatter {
+
+    private static final Map<ReportColumn, Type> FIELDS = new EnumMap<>(Map.of(
+            ReportColumn.TITLE, Types.optional(PrimitiveTypeName.BINARY)
+                    .as(LogicalTypeAnnotation.stringType()).named("title"),
+            ReportColumn.AUTHOR_CANONICAL_NAME, Types.optional(PrimitiveTypeName.BINARY)
+                    .as(LogicalTypeAnnotation.stringType()).named("author_canonical_name"),
+            ReportColumn.GENRES, Types.optionalList()
+                    .optionalElement(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType())
+                    .named("genres"),
+            ReportColumn.PUBLICATION, Types.optional(PrimitiveTypeName.INT32)
+                    .as(LogicalTypeAnnotation.dateType()).named("publication"),
+            ReportColumn.LAST_UPDATE_TIME, Types.optional(PrimitiveTypeName.INT64)
+                    .as(LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MILLIS))
+                    .named("last_update_time")
+    ));
+
+    @Value("${books.report.parquet-row-group-size:16MB}")
+    private DataSize rowGroupSize;
+
+    @Value("${books.report.parquet-codec:SNAPPY}")
+    private CompressionCodecName codec;
+
+    @Override
+    public ReportFormat format() {
+        return ReportFormat.PARQUET;
+    }
+
+    @Override
+    public void write(final List<ReportColumn> columns,
+                      final Iterator<BookReportRow> rows,
+                      final OutputStream out) throws IOException {
+        final MessageType schema = new MessageType("book", columns.stream().map(FIELDS::get).toList());
+        final SimpleGroupFactory groups = new SimpleGroupFactory(schema);
+
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(new StreamOutputFile(out))
+                .withConf(new PlainParquetConfiguration())
+                .withType(schema)
+                .withCompressionCodec(codec)
+                .withRowGroupSize(rowGroupSize.toBytes())
+                .build()) {
+            while (rows.hasNext()) {
+                writer.write(this.toGroup(groups, rows.next()));
+            }
+        }
+    }
+
+    // Columns that were not selected are null in the row and missing from the schema
+    private Group toGroup(final SimpleGroupFactory groups, final BookReportRow book) {
+        final Group group = groups.newGroup();
+
+        if (book.title() != null) {
+            group.append("title", book.title());
+        }
+
+        if (book.authorCanonicalName() != null) {
+            group.append("author_canonical_name", book.authorCanonicalName());
+        }
+
+        if (book.genres() != null) {
+            final Group genres = group.addGroup("genres");
+
+            for (String genre : book.genres().split(",")) {
+                if (!genre.isBlank()) {
+                    genres.addGroup("list").append("element", genre.trim());
+                }
+            }
+        }
+
+        if (book.publication() != null) {
+            group.append("publication", (int) book.publication().toEpochDay());
+        }
+
+        if (book.lastUpdateTime() != null) {
+            group.append("last_update_time", book.lastUpdateTime().toEpochMilli());
+        }
+
+        return group;
+    }
+}
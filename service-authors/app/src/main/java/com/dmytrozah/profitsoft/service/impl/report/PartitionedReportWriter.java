@@ -0,0 +1,169 @@
+package com.dmytrozah.profitsoft.service.impl.report;
+
+import com.dmytrozah.profitsoft.domain.BookIdRange;
+import com.dmytrozah.profitsoft.domain.BookReportRow;
+import com.dmytrozah.profitsoft.domain.dto.ReportColumn;
+import com.dmytrozah.profitsoft.domain.dto.ReportCompression;
+import com.dmytrozah.profitsoft.domain.entity.BookData;
+import com.dmytrozah.profitsoft.domain.repository.BookRepository;
+import com.dmytrozah.profitsoft.domain.repository.spec.BookSpecifications;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Splits the books of a report into id ranges of about the same row count that are read, formatted and compressed
+ * concurrently, each in its own transaction on the partition pool. Every range is spooled to a
+ * temporary file and the files are copied to the output in id order, so the memory use stays
+ * constant and the output is a plain concatenation of independently compressed parts.
+ */
+@Component
+public class PartitionedReportWriter {
+
+    private final BookRepository bookRepository;
+
+    private final ReportCompressor compressor;
+
+    private final BookReportStore store;
+
+    private final ThreadPoolTaskExecutor partitionExecutor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public PartitionedReportWriter(BookRepository bookRepository,
+                                   ReportCompressor compressor,
+                                   BookReportStore store,
+                                   @Qualifier("reportPartitionExecutor") ThreadPoolTaskExecutor partitionExecutor,
+                                   TransactionTemplate transactionTemplate) {
+        this.bookRepository = bookRepository;
+        this.compressor = compressor;
+        this.store = store;
+        this.partitionExecutor = partitionExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public void write(final Specification<BookData> spec,
+                      final List<ReportColumn> columns,
+                      final ConcatenableReportFormatter formatter,
+                      final ReportCompression compression,
+                      final OutputStream out) throws IOException {
+        final List<BookIdRange> ranges = bookRepository.findIdPartitions(spec, partitionExecutor.getMaxPoolSize());
+
+        final AtomicBoolean aborted = new AtomicBoolean();
+        final List<Future<Path>> parts = new ArrayList<>(ranges.size());
+        boolean completed = false;
+
+        try {
+            for (BookIdRange range : ranges) {
+                parts.add(partitionExecutor.submit(() -> this.writePart(spec, columns, formatter, compression, range, aborted)));
+            }
+
+            try (OutputStream header = compressor.compress(compression, StreamUtils.nonClosing(out))) {
+                formatter.writeHeader(columns, header);
+            }
+
+            for (Future<Path> part : parts) {
+                final Path path = await(part);
+
+                try {
+                    Files.copy(path, out);
+                } finally {
+                    store.delete(path);
+                }
+            }
+
+            out.flush();
+            completed = true;
+        } finally {
+            if (!completed) {
+                this.abort(parts, aborted);
+            }
+        }
+    }
+
+    /**
+     * Drops queued parts and the files of finished ones; running parts delete their own file
+     */
+    private void abort(final List<Future<Path>> parts, final AtomicBoolean aborted) {
+        aborted.set(true);
+
+        for (Future<Path> part : parts) {
+            if (!part.cancel(false) && part.state() == Future.State.SUCCESS) {
+                store.delete(part.resultNow());
+            }
+        }
+    }
+
+    private Path writePart(final Specification<BookData> spec,
+                           final List<ReportColumn> columns,
+                           final ConcatenableReportFormatter formatter,
+                           final ReportCompression compression,
+                           final BookIdRange range,
+                           final AtomicBoolean aborted) throws IOException {
+        // Created next to the artifacts, so that parts lost to a crash are evicted with them
+        final Path path = store.createTemp("partition-");
+
+        try {
+            try (OutputStream part = compressor.compress(compression,
+                    new BufferedOutputStream(Files.newOutputStream(path)))) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    try (Stream<BookReportRow> rows = bookRepository.streamReportRows(
+                            spec.and(BookSpecifications.idBetween(range.minId(), range.maxId())), columns)) {
+                        formatter.writeRows(columns, rows.iterator(), part);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        } catch (IOException | RuntimeException e) {
+            store.delete(path);
+            throw e;
+        }
+
+        // The report failed while this part was running, nobody is going to copy it
+        if (aborted.get()) {
+            store.delete(path);
+        }
+
+        return path;
+    }
+
+    private static Path await(final Future<Path> part) throws IOException {
+        try {
+            return part.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Report was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+
+            throw new IOException(e.getCause());
+        }
+    }
+}
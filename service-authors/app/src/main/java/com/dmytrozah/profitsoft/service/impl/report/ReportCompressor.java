@@ -0,0 +1,31 @@
+package com.dmytrozah.profitsoft.service.impl.report;
+
+import com.dmytrozah.profitsoft.domain.dto.ReportCompression;
+import com.github.luben.zstd.ZstdOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Wraps report output in the requested content coding; closing the returned stream finishes the
+ * gzip member or zstd frame. Both codings allow several members or frames to be concatenated.
+ */
+@Component
+public class ReportCompressor {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Value("${books.report.zstd-level:3}")
+    private int zstdLevel;
+
+    OutputStream compress(final ReportCompression compression, final OutputStream out) throws IOException {
+        return switch (compression) {
+            case IDENTITY -> out;
+            case GZIP -> new GZIPOutputStream(out, BUFFER_SIZE);
+            case ZSTD -> new ZstdOutputStream(out, zstdLevel);
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.dmytrozah.profitsoft.service.impl.report;
+
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Parquet output over a plain stream. Parquet only appends and tracks its own position, so no
+ * seekable file is needed. Closing the writer flushes the stream but leaves it open.
+ */
+class StreamOutputFile implements OutputFile {
+
+    private final OutputStream out;
+
+    StreamOutputFile(final OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public PositionOutputStream create(final long blockSizeHint) {
+        return new PositionOutputStream() {
+            private long position;
+
+            @Override
+            public long getPos() {
+                return position;
+            }
+
+            @Override
+            public void write(final int b) throws IOException {
+                out.write(b);
+                position++;
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) throws IOException {
+                out.write(b, off, len);
+                position += len;
+            }
+
+            @Override
+            public void flush() throws IOException {
+                out.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                out.flush();
+            }
+        };
+    }
+
+    @Override
+    public PositionOutputStream createOrOverwrite(final long blockSizeHint) {
+        return this.create(blockSizeHint);
+    }
+
+    @Override
+    public boolean supportsBlockSize() {
+        return false;
+    }
+
+    @Override
+    public long defaultBlockSize() {
+        return 0;
+    }
+}
@@ -0,0 +1,37 @@
+package com.dmytrozah.profitsoft.service.impl.report;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes every byte to the response and to the artifact being stored. Closing it closes neither.
+ */
+class TeeOutputStream extends OutputStream {
+
+    private final OutputStream first;
+
+    private final OutputStream second;
+
+    TeeOutputStream(final OutputStream first, final OutputStream second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        first.write(b);
+        second.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        first.write(b, off, len);
+        second.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        first.flush();
+        second.flush();
+    }
+}
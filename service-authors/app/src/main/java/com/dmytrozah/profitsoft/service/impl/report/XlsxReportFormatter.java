@@ -0,0 +1,112 @@
+package com.dmytrozah.profitsoft.service.impl.report;
+
+import com.dmytrozah.profitsoft.domain.BookReportRow;
+import com.dmytrozah.profitsoft.domain.dto.ReportColumn;
+import com.dmytrozah.profitsoft.domain.dto.ReportFormat;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Spreadsheet report written through a streaming workbook: only the last
+ * {@code books.report.xlsx-row-window} rows stay in memory, older ones are flushed to a
+ * compressed temporary file until the workbook is written out.
+ */
+@Component
+public class XlsxReportFormatter implements BookReportFormatter {
+
+    private static final int MAX_ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    @Value("${books.report.xlsx-row-window:100}")
+    private int rowWindow;
+
+    @Override
+    public ReportFormat format() {
+        return ReportFormat.XLSX;
+    }
+
+    @Override
+    public void write(final List<ReportColumn> columns,
+                      final Iterator<BookReportRow> rows,
+                      final OutputStream out) throws IOException {
+        final SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(true);
+
+        try {
+            final CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+
+            final CellStyle timestampStyle = workbook.createCellStyle();
+            timestampStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+
+            Sheet sheet = null;
+            int rowNum = MAX_ROWS_PER_SHEET;
+
+            while (rows.hasNext()) {
+                // A sheet holds about a million rows, larger reports continue on the next one
+                if (rowNum == MAX_ROWS_PER_SHEET) {
+                    sheet = this.createSheet(workbook, columns);
+                    rowNum = 1;
+                }
+
+                final BookReportRow book = rows.next();
+                final Row row = sheet.createRow(rowNum++);
+
+                for (int i = 0; i < columns.size(); i++) {
+                    switch (columns.get(i)) {
+                        case TITLE -> row.createCell(i).setCellValue(book.title());
+                        case AUTHOR_CANONICAL_NAME -> row.createCell(i).setCellValue(book.authorCanonicalName());
+                        case GENRES -> row.createCell(i).setCellValue(book.genres());
+                        case PUBLICATION -> {
+                            if (book.publication() != null) {
+                                final Cell cell = row.createCell(i);
+                                cell.setCellValue(book.publication());
+                                cell.setCellStyle(dateStyle);
+                            }
+                        }
+                        case LAST_UPDATE_TIME -> {
+                            if (book.lastUpdateTime() != null) {
+                                final Cell cell = row.createCell(i);
+                                cell.setCellValue(LocalDateTime.ofInstant(book.lastUpdateTime(), ZoneOffset.UTC));
+                                cell.setCellStyle(timestampStyle);
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (sheet == null) {
+                this.createSheet(workbook, columns);
+            }
+
+            workbook.write(out);
+            out.flush();
+        } finally {
+            // Also deletes the temporary row files
+            workbook.close();
+        }
+    }
+
+    private Sheet createSheet(final SXSSFWorkbook workbook, final List<ReportColumn> columns) {
+        final Sheet sheet = workbook.createSheet("Books " + (workbook.getNumberOfSheets() + 1));
+        final Row header = sheet.createRow(0);
+
+        for (int i = 0; i < columns.size(); i++) {
+            header.createCell(i).setCellValue(columns.get(i).getHeader());
+        }
+
+        return sheet;
+    }
+}
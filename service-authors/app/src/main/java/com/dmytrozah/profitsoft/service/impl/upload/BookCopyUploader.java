@@ -0,0 +1,296 @@
+package com.dmytrozah.profitsoft.service.impl.upload;
+
+import com.dmytrozah.profitsoft.domain.dto.book.BookInfoDto;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadDto;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadResultDto;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadResultOutcome;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadResultsMode;
+import com.dmytrozah.profitsoft.service.BookUploadResultSink;
+import com.dmytrozah.profitsoft.service.impl.BookExistenceIndex;
+import com.dmytrozah.profitsoft.service.impl.BookSearchIndex;
+import com.fasterxml.jackson.databind.MappingIterator;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fast path for bulk imports: streams the rows into a transaction-scoped staging table with
+ * PostgreSQL {@code COPY} and resolves authors, duplicates and inserts with set-based statements.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookCopyUploader {
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMPORARY TABLE books_upload_staging (
+                row_num BIGINT PRIMARY KEY,
+                title VARCHAR(255),
+                author_canonical_name VARCHAR(255),
+                author_id BIGINT NOT NULL,
+                genres VARCHAR(255),
+                publication DATE NOT NULL,
+                resolved_author_id BIGINT,
+                book_id BIGINT,
+                duplicate_of BIGINT,
+                outcome VARCHAR(32)
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_STAGING = """
+            COPY books_upload_staging (row_num, title, author_canonical_name, author_id, genres, publication)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    private static final String MARK_UNKNOWN_AUTHORS = """
+            UPDATE books_upload_staging s SET outcome = 'AUTHOR_NOT_FOUND'
+            WHERE NOT EXISTS (
+                SELECT 1 FROM book_author_data a
+                WHERE lower(a.canonical_name) = lower(s.author_canonical_name)
+            )
+            """;
+
+    private static final String MARK_EXISTING_BOOKS = """
+            UPDATE books_upload_staging s
+            SET outcome = 'TITLE_AUTHOR_EXISTS', book_id = b.id, resolved_author_id = b.author_id
+            FROM books b
+            WHERE s.outcome IS NULL
+              AND b.title = s.title
+              AND b.author_canonical_name = s.author_canonical_name
+            """;
+
+    // A pair repeated within the file is only inserted for its first row
+    private static final String MARK_DUPLICATE_ROWS = """
+            UPDATE books_upload_staging s
+            SET outcome = 'TITLE_AUTHOR_EXISTS', duplicate_of = f.first_row
+            FROM (
+                SELECT title, author_canonical_name, min(row_num) AS first_row
+                FROM books_upload_staging
+                WHERE outcome IS NULL
+                GROUP BY title, author_canonical_name
+            ) f
+            WHERE s.outcome IS NULL
+              AND s.title = f.title
+              AND s.author_canonical_name = f.author_canonical_name
+              AND s.row_num > f.first_row
+            """;
+
+    private static final String RESOLVE_AUTHORS = """
+            UPDATE books_upload_staging s SET resolved_author_id = r.author_id
+            FROM (
+                SELECT DISTINCT ON (s.row_num) s.row_num, a.id AS author_id
+                FROM books_upload_staging s
+                JOIN book_author_data a ON CASE
+                    WHEN s.author_id <> -1 THEN a.id = s.author_id
+                    ELSE a.canonical_name = s.author_canonical_name
+                END
+                WHERE s.outcome IS NULL
+                ORDER BY s.row_num, a.id
+            ) r
+            WHERE s.row_num = r.row_num
+            """;
+
+    /**
+     * Increment of {@code books_seq}, equal to the allocation size of {@code BookData}. With the pooled
+     * optimizer every {@code nextval} hands its caller the whole block {@code (value - increment, value]}.
+     */
+    private static final int BOOKS_SEQ_INCREMENT = 50;
+
+    // Reserves just enough blocks of books_seq for the accepted rows, one nextval per block rather than
+    // per row, and numbers the rows through them. The blocks never collide with Hibernate's.
+    private static final String ASSIGN_BOOK_IDS = """
+            WITH accepted AS (
+                SELECT row_num, row_number() OVER (ORDER BY row_num) - 1 AS n
+                FROM books_upload_staging
+                WHERE outcome IS NULL AND resolved_author_id IS NOT NULL
+            ), blocks AS (
+                SELECT row_number() OVER () - 1 AS block, nextval('books_seq') AS hi
+                FROM generate_series(1, (SELECT (count(*) + %1$d - 1) / %1$d FROM accepted))
+            )
+            UPDATE books_upload_staging s
+            SET outcome = 'SUCCESS', book_id = b.hi - %1$d + 1 + a.n %% %1$d
+            FROM accepted a
+            JOIN blocks b ON b.block = a.n / %1$d
+            WHERE s.row_num = a.row_num
+            """.formatted(BOOKS_SEQ_INCREMENT);
+
+    private static final String INSERT_BOOKS = """
+            INSERT INTO books (id, author_id, title, author_canonical_name, genres, publication, last_update_time)
+            SELECT book_id, resolved_author_id, title, author_canonical_name, genres, publication, now()
+            FROM books_upload_staging
+            WHERE outcome = 'SUCCESS'
+            """;
+
+    private static final String MARK_UNRESOLVED_AUTHORS = """
+            UPDATE books_upload_staging SET outcome = 'AUTHOR_NOT_FOUND' WHERE outcome IS NULL
+            """;
+
+    private static final String LINK_DUPLICATE_ROWS = """
+            UPDATE books_upload_staging s
+            SET book_id = f.book_id,
+                resolved_author_id = f.resolved_author_id,
+                outcome = CASE WHEN f.outcome = 'SUCCESS' THEN 'TITLE_AUTHOR_EXISTS' ELSE f.outcome END
+            FROM books_upload_staging f
+            WHERE s.duplicate_of = f.row_num
+            """;
+
+    private static final String SELECT_RESULTS = """
+            SELECT book_id, title, author_canonical_name, resolved_author_id, genres, publication, outcome
+            FROM books_upload_staging
+            ORDER BY row_num
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final BookExistenceIndex existenceIndex;
+
+    private final BookSearchIndex searchIndex;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${books.upload.chunk-size:1000}")
+    private int chunkSize;
+
+    public void upload(final MappingIterator<BookUploadDto> uploads,
+                       final BookUploadResultSink sink) throws IOException {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.execute((ConnectionCallback<Void>) con -> this.upload(con, uploads, sink))
+            );
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Void upload(final Connection con,
+                        final MappingIterator<BookUploadDto> uploads,
+                        final BookUploadResultSink sink) throws SQLException {
+        try (Statement statement = con.createStatement()) {
+            statement.execute(CREATE_STAGING);
+
+            this.copyRows(con, uploads);
+
+            statement.executeUpdate(MARK_UNKNOWN_AUTHORS);
+            statement.executeUpdate(MARK_EXISTING_BOOKS);
+            statement.executeUpdate(MARK_DUPLICATE_ROWS);
+            statement.executeUpdate(RESOLVE_AUTHORS);
+            statement.executeUpdate(ASSIGN_BOOK_IDS);
+            statement.executeUpdate(INSERT_BOOKS);
+            statement.executeUpdate(MARK_UNRESOLVED_AUTHORS);
+            statement.executeUpdate(LINK_DUPLICATE_ROWS);
+
+            final UploadResultsMode resultsMode = sink.resultsMode();
+            final List<BookUploadResultDto> results = new ArrayList<>(chunkSize);
+            final List<BookExistenceIndex.Pair> stored = new ArrayList<>(chunkSize);
+            final List<BookSearchIndex.Entry> indexed = new ArrayList<>(chunkSize);
+            int rows = 0;
+            int successfulUploads = 0;
+
+            // Cursor-based fetch, the transaction keeps autocommit off
+            statement.setFetchSize(chunkSize);
+
+            try (ResultSet rs = statement.executeQuery(SELECT_RESULTS)) {
+                while (rs.next()) {
+                    final UploadResultOutcome outcome = UploadResultOutcome.valueOf(rs.getString("outcome"));
+
+                    if (outcome == UploadResultOutcome.SUCCESS) {
+                        stored.add(new BookExistenceIndex.Pair(rs.getString("title"), rs.getString("author_canonical_name")));
+                        indexed.add(new BookSearchIndex.Entry(rs.getLong("book_id"), rs.getLong("resolved_author_id"),
+                                rs.getString("title"), rs.getString("author_canonical_name"), rs.getString("genres"),
+                                rs.getDate("publication").toLocalDate()));
+                        successfulUploads++;
+                    }
+
+                    if (resultsMode.includes(outcome)) {
+                        final BookInfoDto info = new BookInfoDto(
+                                rs.getLong("book_id"),
+                                rs.getString("title"),
+                                rs.getString("author_canonical_name"),
+                                rs.getLong("resolved_author_id")
+                        );
+
+                        results.add(new BookUploadResultDto(info, outcome));
+                    }
+
+                    if (++rows >= chunkSize) {
+                        sink.accept(List.copyOf(results), successfulUploads, rows - successfulUploads);
+                        existenceIndex.addAll(stored);
+                        searchIndex.index(indexed);
+                        stored.clear();
+                        indexed.clear();
+                        results.clear();
+                        rows = 0;
+                        successfulUploads = 0;
+                    }
+                }
+            }
+
+            if (rows > 0) {
+                sink.accept(List.copyOf(results), successfulUploads, rows - successfulUploads);
+                existenceIndex.addAll(stored);
+                searchIndex.index(indexed);
+            }
+
+            return null;
+        }
+    }
+
+    private void copyRows(final Connection con,
+                          final MappingIterator<BookUploadDto> uploads) throws SQLException {
+        final CopyIn copyIn = con.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING);
+
+        try {
+            final StringBuilder line = new StringBuilder(256);
+            long rowNum = 0;
+
+            while (uploads.hasNextValue()) {
+                final BookUploadDto upload = uploads.nextValue();
+
+                line.setLength(0);
+                line.append(rowNum++).append(',');
+                appendCsv(line, upload.getTitle()).append(',');
+                appendCsv(line, upload.getAuthorName()).append(',');
+                line.append(upload.getAuthorId()).append(',');
+                appendCsv(line, upload.getGenres()).append(',');
+                line.append(BookUploadConverter.resolvePublication(upload)).append('\n');
+
+                final byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            }
+
+            copyIn.endCopy();
+        } catch (IOException e) {
+            copyIn.cancelCopy();
+            throw new UncheckedIOException(e);
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    /**
+     * Quotes a CSV value; {@code null} stays an unquoted empty field, which COPY reads as NULL
+     */
+    private static StringBuilder appendCsv(final StringBuilder line, final String value) {
+        if (value == null) {
+            return line;
+        }
+
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
@@ -0,0 +1,89 @@
+package com.dmytrozah.profitsoft.service.impl.upload;
+
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadDto;
+import com.dmytrozah.profitsoft.domain.entity.BookAuthorData;
+import com.dmytrozah.profitsoft.domain.entity.BookData;
+import com.dmytrozah.profitsoft.domain.repository.BookAuthorRepository;
+import com.dmytrozah.profitsoft.domain.repository.BookRepository;
+import com.dmytrozah.profitsoft.service.impl.BookExistenceIndex;
+import com.dmytrozah.profitsoft.service.impl.upload.BookUploadResolution.TitleAuthorKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Resolves every author and (title, author) pair referenced by an upload chunk
+ * with a fixed number of {@code IN} queries, instead of several lookups per row.
+ * Pairs ruled out by the {@link BookExistenceIndex} are not looked up at all.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookUploadChunkResolver {
+    private final BookAuthorRepository authorRepository;
+
+    private final BookRepository bookRepository;
+
+    private final BookExistenceIndex existenceIndex;
+
+    BookUploadResolution resolve(final List<BookUploadDto> chunk) {
+        final Set<String> lowerNames = new HashSet<>();
+        final Set<Long> authorIds = new HashSet<>();
+        final Set<String> titles = new HashSet<>();
+        final Set<String> names = new HashSet<>();
+
+        for (BookUploadDto upload : chunk) {
+            if (upload.getAuthorName() != null) {
+                lowerNames.add(upload.getAuthorName().toLowerCase(Locale.ROOT));
+            }
+
+            if (upload.getAuthorId() != -1) {
+                authorIds.add(upload.getAuthorId());
+            }
+
+            // Only probable duplicates are looked up, most uploaded books are new
+            if (upload.getTitle() != null && upload.getAuthorName() != null
+                    && existenceIndex.mightContain(upload.getTitle(), upload.getAuthorName())) {
+                titles.add(upload.getTitle());
+                names.add(upload.getAuthorName());
+            }
+        }
+
+        final Set<String> lowerAuthorNames = new HashSet<>();
+        final Map<String, BookAuthorData> authorsByCanonicalName = new HashMap<>();
+
+        if (!lowerNames.isEmpty()) {
+            for (BookAuthorData author : authorRepository.findAllByLowerCanonicalNameIn(lowerNames)) {
+                lowerAuthorNames.add(author.getCanonicalName().toLowerCase(Locale.ROOT));
+                authorsByCanonicalName.putIfAbsent(author.getCanonicalName(), author);
+            }
+        }
+
+        final Map<Long, BookAuthorData> authorsById = new HashMap<>();
+
+        if (!authorIds.isEmpty()) {
+            authorRepository.findAllById(authorIds)
+                    .forEach(author -> authorsById.put(author.getId(), author));
+        }
+
+        return new BookUploadResolution(
+                lowerAuthorNames, authorsByCanonicalName, authorsById, this.findExistingBooks(titles, names)
+        );
+    }
+
+    /**
+     * Looks up the stored books matching any of the given titles and canonical author names,
+     * keyed by their exact (title, author) pair
+     */
+    Map<TitleAuthorKey, BookData> findExistingBooks(final Set<String> titles, final Set<String> names) {
+        final Map<TitleAuthorKey, BookData> existingBooks = new HashMap<>();
+
+        if (!titles.isEmpty() && !names.isEmpty()) {
+            for (BookData book : bookRepository.findAllByTitleInAndAuthorCanonicalNameIn(titles, names)) {
+                existingBooks.putIfAbsent(new TitleAuthorKey(book.getTitle(), book.getAuthorCanonicalName()), book);
+            }
+        }
+
+        return existingBooks;
+    }
+}
@@ -0,0 +1,105 @@
+package com.dmytrozah.profitsoft.service.impl.upload;
+
+import com.dmytrozah.profitsoft.domain.BookUploadResult;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadDto;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadResultOutcome;
+import com.dmytrozah.profitsoft.domain.entity.BookAuthorData;
+import com.dmytrozah.profitsoft.domain.entity.BookData;
+import com.dmytrozah.profitsoft.service.impl.upload.BookUploadResolution.TitleAuthorKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Turns uploaded rows into {@link BookData} candidates and their outcomes. Only {@link #convert(List)}
+ * touches the database, through one chunk-wide resolution; the per-row work is pure.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookUploadConverter {
+    private final BookUploadChunkResolver chunkResolver;
+
+    ConvertedChunk convert(final List<BookUploadDto> rows) {
+        final BookUploadResolution resolution = chunkResolver.resolve(rows);
+        final Map<TitleAuthorKey, BookData> accepted = new HashMap<>();
+
+        return new ConvertedChunk(
+                rows,
+                rows.stream().map(upload -> convertFromUpload(upload, resolution, accepted)).toList()
+        );
+    }
+
+    /**
+     * @param accepted books accepted earlier in the same chunk, a repeated (title, author) pair
+     *                 within the file refers to the first one instead of being inserted twice
+     */
+    private BookUploadResult convertFromUpload(BookUploadDto bookUploadDto,
+                                               BookUploadResolution resolution,
+                                               Map<TitleAuthorKey, BookData> accepted) {
+        BookData bookData = new BookData();
+
+        bookData.setTitle(bookUploadDto.getTitle());
+        bookData.setAuthorCanonicalName(bookUploadDto.getAuthorName());
+
+        if (!resolution.authorExistsIgnoreCase(bookUploadDto.getAuthorName())) {
+            return new BookUploadResult(bookData, UploadResultOutcome.AUTHOR_NOT_FOUND);
+        }
+
+        final Optional<BookData> existing = resolution.existingBook(
+                bookUploadDto.getTitle(), bookUploadDto.getAuthorName()
+        );
+
+        if (existing.isPresent()) {
+            return new BookUploadResult(existing.get(), UploadResultOutcome.TITLE_AUTHOR_EXISTS);
+        }
+
+        final TitleAuthorKey key = new TitleAuthorKey(bookUploadDto.getTitle(), bookUploadDto.getAuthorName());
+
+        if (accepted.containsKey(key)) {
+            return new BookUploadResult(accepted.get(key), UploadResultOutcome.TITLE_AUTHOR_EXISTS);
+        }
+
+        BookAuthorData author = null;
+
+        if (bookUploadDto.getAuthorName() != null) {
+            author = resolution.authorByCanonicalName(bookUploadDto.getAuthorName())
+                    .orElse(null);
+        }
+
+        if (bookUploadDto.getAuthorId() != -1) {
+            author = resolution.authorById(bookUploadDto.getAuthorId())
+                    .orElse(null);
+        }
+
+        if (author == null) {
+            return new BookUploadResult(
+                    bookData,
+                    UploadResultOutcome.AUTHOR_NOT_FOUND
+            );
+        }
+
+        bookData.setAuthor(author);
+        bookData.setGenres(bookUploadDto.getGenres());
+
+        bookData.setPublication(resolvePublication(bookUploadDto));
+
+        accepted.put(key, bookData);
+
+        return new BookUploadResult(bookData, UploadResultOutcome.SUCCESS);
+    }
+
+    static LocalDate resolvePublication(final BookUploadDto bookUploadDto) {
+        if (bookUploadDto.getPublication() != null) {
+            return bookUploadDto.getPublication();
+        } else if (bookUploadDto.getPublicationYear() != -1) {
+            return LocalDate.of(bookUploadDto.getPublicationYear(), 1, 1);
+        }
+
+        return LocalDate.now();
+    }
+}
@@ -0,0 +1,429 @@
+package com.dmytrozah.profitsoft.service.impl.upload;
+
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadFormat;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadJobDto;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadResultDto;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadResultsResponse;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadJobStatus;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadMode;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadResultOutcome;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadResultsMode;
+import com.dmytrozah.profitsoft.domain.entity.BookUploadJobData;
+import com.dmytrozah.profitsoft.domain.entity.BookUploadJobResultData;
+import com.dmytrozah.profitsoft.domain.entity.mapper.BookUploadJobMapper;
+import com.dmytrozah.profitsoft.domain.repository.BookUploadJobRepository;
+import com.dmytrozah.profitsoft.domain.repository.BookUploadJobResultRepository;
+import com.dmytrozah.profitsoft.service.BookUploadJobService;
+import com.dmytrozah.profitsoft.service.BookUploadResultSink;
+import com.dmytrozah.profitsoft.service.BookUploadService;
+import com.dmytrozah.profitsoft.service.exception.UploadInProgressException;
+import com.dmytrozah.profitsoft.service.exception.UploadJobNotFoundException;
+import com.dmytrozah.profitsoft.service.exception.UploadQueueFullException;
+import com.dmytrozah.profitsoft.service.impl.upload.BookUploadSpool.SpooledUpload;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tomcat.util.http.fileupload.FileUploadException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookUploadJobServiceImpl implements BookUploadJobService {
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 120;
+
+    private static final int RESULT_PAGE_SIZE = 1000;
+
+    private final BookUploadService uploadService;
+
+    private final BookUploadJobRepository jobRepository;
+
+    private final BookUploadJobResultRepository resultRepository;
+
+    private final BookUploadJobMapper jobMapper;
+
+    private final BookUploadSpool spool;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TaskExecutor uploadExecutor;
+
+    // Jobs queued or running on this instance
+    private final Set<UUID> active = ConcurrentHashMap.newKeySet();
+
+    @Value("${books.upload.idempotency-ttl:24h}")
+    private Duration idempotencyTtl;
+
+    @Override
+    public UUID submit(final MultipartFile file, final UploadMode mode) throws FileUploadException {
+        return this.submit(file, mode, null);
+    }
+
+    @Override
+    public UUID submit(final MultipartFile file, final UploadMode mode, final String idempotencyKey)
+            throws FileUploadException {
+        final Claim claim = this.claim(file, mode, UploadResultsMode.ALL, idempotencyKey);
+        final UUID id = claim.job().getId();
+
+        if (!claim.run()) {
+            return id;
+        }
+
+        try {
+            this.schedule(id);
+        } catch (TaskRejectedException e) {
+            // Kept as failed, a retry of the same upload picks it up again
+            this.finish(id, UploadJobStatus.FAILED, "Upload queue is full");
+            active.remove(id);
+            spool.delete(Path.of(claim.job().getFilePath()));
+
+            throw new UploadQueueFullException(e);
+        }
+
+        return id;
+    }
+
+    @Override
+    public BookUploadResultsResponse upload(final MultipartFile file,
+                                            final UploadMode mode,
+                                            final UploadResultsMode resultsMode,
+                                            final String idempotencyKey) throws FileUploadException {
+        final Claim claim = this.claim(file, mode, resultsMode, idempotencyKey);
+        final UUID id = claim.job().getId();
+
+        if (!claim.run()) {
+            if (claim.job().getStatus() != UploadJobStatus.COMPLETED) {
+                throw new UploadInProgressException(id);
+            }
+
+            return this.toResponse(claim.job(), resultsMode, true);
+        }
+
+        try {
+            this.process(id);
+        } catch (IOException e) {
+            throw new FileUploadException(e.getMessage());
+        }
+
+        return this.toResponse(
+                jobRepository.findById(id).orElseThrow(() -> new UploadJobNotFoundException(id)),
+                resultsMode,
+                false
+        );
+    }
+
+    @Override
+    public BookUploadJobDto getJob(final UUID id, final int page, final int size) {
+        final BookUploadJobData job = jobRepository.findById(id)
+                .orElseThrow(() -> new UploadJobNotFoundException(id));
+
+        final Page<BookUploadJobResultData> results = resultRepository.findAllByJobId(
+                id, PageRequest.of(page, size, Sort.by("rowNum"))
+        );
+
+        return jobMapper.toDto(
+                job,
+                results.stream().map(jobMapper::toResultDto).toList(),
+                results.getTotalPages()
+        );
+    }
+
+    /**
+     * Picks up the jobs that were queued or running when the service went down.
+     * Running jobs continue after the last chunk they committed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        final List<BookUploadJobData> unfinished = jobRepository.findAllByStatusIn(
+                List.of(UploadJobStatus.QUEUED, UploadJobStatus.RUNNING)
+        );
+
+        for (BookUploadJobData job : unfinished) {
+            if (job.getFilePath() == null || !Files.exists(Path.of(job.getFilePath()))) {
+                this.finish(job.getId(), UploadJobStatus.FAILED, "Spooled upload file is no longer available");
+                continue;
+            }
+
+            job.setStatus(UploadJobStatus.QUEUED);
+            jobRepository.save(job);
+
+            active.add(job.getId());
+
+            try {
+                this.schedule(job.getId());
+            } catch (TaskRejectedException e) {
+                this.finish(job.getId(), UploadJobStatus.FAILED, "Upload queue is full");
+                active.remove(job.getId());
+            }
+        }
+    }
+
+    /**
+     * Removes finished jobs once they can no longer be replayed, their results go with them
+     * through the cascading foreign key
+     */
+    @Scheduled(fixedDelayString = "${books.upload.purge-interval:1h}")
+    public void purgeExpiredJobs() {
+        final List<BookUploadJobData> expired = jobRepository.findAllByStatusInAndUpdatedAtBefore(
+                List.of(UploadJobStatus.COMPLETED, UploadJobStatus.FAILED), Instant.now().minus(idempotencyTtl)
+        );
+
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        for (BookUploadJobData job : expired) {
+            if (job.getFilePath() != null) {
+                spool.delete(Path.of(job.getFilePath()));
+            }
+        }
+
+        jobRepository.deleteAllByIdInBatch(expired.stream().map(BookUploadJobData::getId).toList());
+
+        log.info("Purged {} expired upload jobs", expired.size());
+    }
+
+    private void schedule(final UUID id) {
+        uploadExecutor.execute(() -> this.run(id));
+    }
+
+    private void run(final UUID id) {
+        try {
+            this.process(id);
+        } catch (Exception e) {
+            log.warn("Upload job {} failed: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the job on the calling thread, skipping the rows that an earlier attempt has committed
+     */
+    private void process(final UUID id) throws IOException {
+        final BookUploadJobData job = jobRepository.findById(id).orElse(null);
+
+        if (job == null) {
+            active.remove(id);
+            return;
+        }
+
+        job.setStatus(UploadJobStatus.RUNNING);
+        job.setError(null);
+        jobRepository.save(job);
+
+        final Path path = Path.of(job.getFilePath());
+
+        final UploadResultsMode resultsMode = job.getResultsMode();
+        final BookUploadResultSink sink = new BookUploadResultSink() {
+            @Override
+            public void accept(List<BookUploadResultDto> results, int successfulUploads, int failedUploads) {
+                BookUploadJobServiceImpl.this.recordChunk(id, results, successfulUploads, failedUploads);
+            }
+
+            @Override
+            public UploadResultsMode resultsMode() {
+                return resultsMode;
+            }
+        };
+
+        try (InputStream in = spool.open(path)) {
+            uploadService.upload(in, job.getFormat(), job.getMode(), job.getProcessedRows(), sink);
+
+            this.finish(id, UploadJobStatus.COMPLETED, null);
+        } catch (IOException | RuntimeException e) {
+            this.finish(id, UploadJobStatus.FAILED, e.getMessage());
+
+            throw e;
+        } finally {
+            spool.delete(path);
+            active.remove(id);
+        }
+    }
+
+    /**
+     * Spools the file and finds the job responsible for it. A new job is created unless a retry
+     * of the same upload is already known: a completed or still active job is returned as is,
+     * an interrupted or failed one is pointed to the fresh copy of the payload to be resumed.
+     */
+    private Claim claim(final MultipartFile file,
+                        final UploadMode mode,
+                        final UploadResultsMode resultsMode,
+                        final String idempotencyKey) throws FileUploadException {
+        if (idempotencyKey != null && idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must not exceed %d characters"
+                    .formatted(MAX_IDEMPOTENCY_KEY_LENGTH));
+        }
+
+        final UUID id = UUID.randomUUID();
+        final SpooledUpload spooled;
+
+        try {
+            spooled = spool.spool(file, id);
+        } catch (IOException e) {
+            throw new FileUploadException(e.getMessage());
+        }
+
+        final BookUploadFormat format = BookUploadFormat.of(file.getContentType(), file.getOriginalFilename());
+        final boolean derived = idempotencyKey == null || idempotencyKey.isBlank();
+        // The same payload read in another mode or format is a different upload
+        final String key = derived
+                ? "sha256:%s:%s:%s".formatted(spooled.sha256(), mode, format)
+                : "key:" + idempotencyKey;
+
+        final BookUploadJobData existing = jobRepository.findByIdempotencyKey(key).orElse(null);
+
+        if (!derived && existing != null && !this.isExpired(existing)
+                && (existing.getMode() != mode || existing.getFormat() != format)) {
+            spool.delete(spooled.path());
+
+            throw new IllegalArgumentException("Idempotency-Key %s was used for a %s upload in %s mode"
+                    .formatted(idempotencyKey, existing.getFormat(), existing.getMode()));
+        }
+
+        if (existing != null && (this.isReusable(existing)
+                || (!this.isExpired(existing) && !active.add(existing.getId())))) {
+            // Completed, or resumed by a concurrent retry on this instance
+            spool.delete(spooled.path());
+
+            return new Claim(existing, false);
+        }
+
+        final BookUploadJobData job;
+
+        if (existing == null || this.isExpired(existing)) {
+            if (existing != null) {
+                // The cached result has expired
+                jobRepository.delete(existing);
+            }
+
+            job = new BookUploadJobData();
+            job.setId(id);
+            job.setIdempotencyKey(key);
+            job.setResultsMode(resultsMode);
+        } else {
+            job = existing;
+
+            if (job.getFilePath() != null) {
+                spool.delete(Path.of(job.getFilePath()));
+            }
+        }
+
+        job.setStatus(UploadJobStatus.QUEUED);
+        job.setMode(mode);
+        job.setFormat(format);
+        job.setFilePath(spooled.path().toString());
+
+        try {
+            jobRepository.saveAndFlush(job);
+        } catch (DataIntegrityViolationException e) {
+            // Claimed by a concurrent upload of the same key, here or on another instance
+            spool.delete(spooled.path());
+            active.remove(job.getId());
+
+            return new Claim(jobRepository.findByIdempotencyKey(key).orElseThrow(() -> e), false);
+        }
+
+        active.add(job.getId());
+
+        return new Claim(job, true);
+    }
+
+    private boolean isExpired(final BookUploadJobData job) {
+        return job.getStatus() == UploadJobStatus.COMPLETED && !this.isReusable(job);
+    }
+
+    private boolean isReusable(final BookUploadJobData job) {
+        return job.getStatus() == UploadJobStatus.COMPLETED
+                && job.getUpdatedAt() != null
+                && job.getUpdatedAt().plus(idempotencyTtl).isAfter(Instant.now());
+    }
+
+    /**
+     * Answers with the requested results, as far as the job has stored them
+     */
+    private BookUploadResultsResponse toResponse(final BookUploadJobData job,
+                                                 final UploadResultsMode resultsMode,
+                                                 final boolean replayed) {
+        final UploadResultsMode stored = job.getResultsMode();
+        // Declared from the most to the fewest results
+        final UploadResultsMode answered = stored.ordinal() > resultsMode.ordinal() ? stored : resultsMode;
+        final UUID id = job.getId();
+        final Limit page = Limit.of(RESULT_PAGE_SIZE);
+        final JobResultPages results = switch (answered) {
+            case ALL -> new JobResultPages(rowNum -> resultRepository
+                    .findAllByJobIdAndRowNumGreaterThanOrderByRowNum(id, rowNum, page), RESULT_PAGE_SIZE, jobMapper);
+            case FAILURES -> new JobResultPages(rowNum -> resultRepository
+                    .findAllByJobIdAndRowNumGreaterThanAndOutcomeNotOrderByRowNum(
+                            id, rowNum, UploadResultOutcome.SUCCESS, page), RESULT_PAGE_SIZE, jobMapper);
+            case NONE -> null;
+        };
+
+        return new BookUploadResultsResponse(
+                results,
+                Math.toIntExact(job.getSuccessfulUploads()),
+                Math.toIntExact(job.getFailedUploads()),
+                replayed
+        );
+    }
+
+    private void recordChunk(final UUID id,
+                             final List<BookUploadResultDto> results,
+                             final int successfulUploads,
+                             final int failedUploads) {
+        transactionTemplate.executeWithoutResult(status -> {
+            final BookUploadJobData job = jobRepository.findById(id)
+                    .orElseThrow(() -> new UploadJobNotFoundException(id));
+
+            final List<BookUploadJobResultData> entities = new ArrayList<>(results.size());
+            // Only orders the stored results, a chunk never holds more results than rows
+            long rowNum = job.getProcessedRows();
+
+            for (BookUploadResultDto result : results) {
+                entities.add(jobMapper.toEntity(result, id, rowNum++));
+            }
+
+            resultRepository.saveAll(entities);
+
+            job.setProcessedRows(job.getProcessedRows() + successfulUploads + failedUploads);
+            job.setSuccessfulUploads(job.getSuccessfulUploads() + successfulUploads);
+            job.setFailedUploads(job.getFailedUploads() + failedUploads);
+
+            jobRepository.save(job);
+        });
+    }
+
+    private void finish(final UUID id, final UploadJobStatus status, final String error) {
+        jobRepository.findById(id).ifPresent(job -> {
+            job.setStatus(status);
+            job.setError(error == null || error.length() <= 1024 ? error : error.substring(0, 1024));
+
+            jobRepository.save(job);
+        });
+    }
+
+    private record Claim(BookUploadJobData job, boolean run) {
+    }
+}
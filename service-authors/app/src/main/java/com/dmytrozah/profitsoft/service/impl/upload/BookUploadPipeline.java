@@ -0,0 +1,373 @@
+package com.dmytrozah.profitsoft.service.impl.upload;
+
+import com.dmytrozah.profitsoft.domain.BookUploadResult;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadDto;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadResultOutcome;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadResultsMode;
+import com.dmytrozah.profitsoft.domain.entity.BookData;
+import com.dmytrozah.profitsoft.domain.entity.mapper.BookUploadMapper;
+import com.dmytrozah.profitsoft.domain.repository.BookRepository;
+import com.dmytrozah.profitsoft.service.BookUploadResultSink;
+import com.dmytrozah.profitsoft.service.impl.BookExistenceIndex;
+import com.dmytrozah.profitsoft.service.impl.BookSearchIndex;
+import com.dmytrozah.profitsoft.service.impl.upload.BookUploadResolution.TitleAuthorKey;
+import com.fasterxml.jackson.databind.MappingIterator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Chunked upload engine with three stages connected by a bounded queue:
+ * <ol>
+ *     <li>parse - reads rows from the input on a virtual thread and cuts them into chunks;</li>
+ *     <li>convert - resolves and converts every chunk on its own virtual thread;</li>
+ *     <li>persist - writes the chunks on the calling thread, strictly in input order.</li>
+ * </ol>
+ * The queue holds the pending conversions in submission order, which keeps the results ordered
+ * and blocks the parser once {@code books.upload.pipeline-depth} chunks are in flight.
+ */
+@Slf4j
+@Component
+public class BookUploadPipeline {
+
+    private static final Future<ConvertedChunk> END_OF_INPUT = CompletableFuture.completedFuture(null);
+
+    private final BookUploadConverter converter;
+
+    private final BookUploadChunkResolver chunkResolver;
+
+    private final BookUploadMapper uploadMapper;
+
+    private final BookRepository bookRepository;
+
+    private final BookExistenceIndex existenceIndex;
+
+    private final BookSearchIndex searchIndex;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EntityManager entityManager;
+
+    private final StageMetrics parseMetrics;
+
+    private final StageMetrics convertMetrics;
+
+    private final StageMetrics persistMetrics;
+
+    @Value("${books.upload.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${books.upload.pipeline-depth:4}")
+    private int pipelineDepth;
+
+    public BookUploadPipeline(BookUploadConverter converter,
+                              BookUploadChunkResolver chunkResolver,
+                              BookUploadMapper uploadMapper,
+                              BookRepository bookRepository,
+                              BookExistenceIndex existenceIndex,
+                              BookSearchIndex searchIndex,
+                              TransactionTemplate transactionTemplate,
+                              EntityManager entityManager,
+                              MeterRegistry meterRegistry) {
+        this.converter = converter;
+        this.chunkResolver = chunkResolver;
+        this.uploadMapper = uploadMapper;
+        this.bookRepository = bookRepository;
+        this.existenceIndex = existenceIndex;
+        this.searchIndex = searchIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+
+        this.parseMetrics = new StageMetrics("parse", meterRegistry);
+        this.convertMetrics = new StageMetrics("convert", meterRegistry);
+        this.persistMetrics = new StageMetrics("persist", meterRegistry);
+    }
+
+    void run(final MappingIterator<BookUploadDto> uploads, final BookUploadResultSink sink) throws IOException {
+        final BlockingQueue<Future<ConvertedChunk>> pending = new ArrayBlockingQueue<>(pipelineDepth);
+        final UploadStatistics statistics = new UploadStatistics();
+
+        try (ExecutorService stages = Executors.newVirtualThreadPerTaskExecutor()) {
+            final Future<?> parser = stages.submit(() -> this.parse(uploads, pending, stages, statistics));
+
+            try {
+                Future<ConvertedChunk> next;
+
+                while ((next = pending.take()) != END_OF_INPUT) {
+                    this.persist(await(next), sink, statistics);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Upload was interrupted");
+            } finally {
+                if (!parser.isDone()) {
+                    // Persisting failed: stop parsing and drop the conversions in flight
+                    stages.shutdownNow();
+                }
+            }
+        }
+
+        log.info("Upload pipeline throughput (rows/s): parse={}, convert={}, persist={}",
+                statistics.parse.rowsPerSecond(),
+                statistics.convert.rowsPerSecond(),
+                statistics.persist.rowsPerSecond());
+    }
+
+    private void parse(final MappingIterator<BookUploadDto> uploads,
+                       final BlockingQueue<Future<ConvertedChunk>> pending,
+                       final ExecutorService stages,
+                       final UploadStatistics statistics) {
+        try {
+            List<BookUploadDto> chunk = new ArrayList<>(chunkSize);
+            long start = System.nanoTime();
+
+            while (uploads.hasNextValue()) {
+                chunk.add(uploads.nextValue());
+
+                if (chunk.size() >= chunkSize) {
+                    this.record(parseMetrics, statistics.parse, chunk.size(), start);
+                    this.submit(chunk, pending, stages, statistics);
+
+                    chunk = new ArrayList<>(chunkSize);
+                    start = System.nanoTime();
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                this.record(parseMetrics, statistics.parse, chunk.size(), start);
+                this.submit(chunk, pending, stages, statistics);
+            }
+
+            pending.put(END_OF_INPUT);
+        } catch (IOException | RuntimeException e) {
+            try {
+                pending.put(CompletableFuture.failedFuture(e));
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(final List<BookUploadDto> chunk,
+                        final BlockingQueue<Future<ConvertedChunk>> pending,
+                        final ExecutorService stages,
+                        final UploadStatistics statistics) throws InterruptedException {
+        pending.put(stages.submit(() -> {
+            final long start = System.nanoTime();
+            final ConvertedChunk converted = converter.convert(chunk);
+
+            this.record(convertMetrics, statistics.convert, chunk.size(), start);
+
+            return converted;
+        }));
+    }
+
+    /**
+     * Writes a converted chunk in its own transaction and hands the mapped results to the sink.
+     * If the chunk cannot be written, its rows are retried one by one and only the offending rows
+     * are reported as failures.
+     */
+    private void persist(final ConvertedChunk chunk,
+                         final BookUploadResultSink sink,
+                         final UploadStatistics statistics) {
+        final long start = System.nanoTime();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                this.publish(this.save(chunk.results()), sink);
+            });
+        } catch (DataAccessException | PersistenceException | TransactionException e) {
+            log.warn("Upload chunk of {} rows failed, retrying row by row: {}", chunk.rows().size(), e.getMessage());
+
+            this.persistRowByRow(chunk.rows(), sink);
+        } finally {
+            // Drop the chunk's entities from the (possibly request-scoped) persistence context
+            entityManager.clear();
+
+            this.record(persistMetrics, statistics.persist, chunk.rows().size(), start);
+        }
+    }
+
+    private void persistRowByRow(final List<BookUploadDto> rows, final BookUploadResultSink sink) {
+        final List<BookUploadResult> results = new ArrayList<>(rows.size());
+
+        for (BookUploadDto upload : rows) {
+            try {
+                results.add(transactionTemplate.execute(status ->
+                        this.save(converter.convert(List.of(upload)).results()).getFirst()
+                ));
+            } catch (DataAccessException | PersistenceException | TransactionException e) {
+                log.warn("Upload row '{}' by '{}' failed: {}", upload.getTitle(), upload.getAuthorName(), e.getMessage());
+
+                final BookData failed = new BookData();
+                failed.setTitle(upload.getTitle());
+                failed.setAuthorCanonicalName(upload.getAuthorName());
+
+                results.add(new BookUploadResult(failed, UploadResultOutcome.SAVE_FAILED));
+            } finally {
+                entityManager.clear();
+            }
+        }
+
+        this.publish(results, sink);
+    }
+
+    /**
+     * Maps the results the sink asked for and hands them over together with the chunk's counts
+     */
+    private void publish(final List<BookUploadResult> results, final BookUploadResultSink sink) {
+        final UploadResultsMode resultsMode = sink.resultsMode();
+        final int successful = countSuccessful(results);
+
+        sink.accept(
+                results.stream()
+                        .filter(res -> resultsMode.includes(res.outcome()))
+                        .map(this.uploadMapper::toDto)
+                        .toList(),
+                successful,
+                results.size() - successful
+        );
+    }
+
+    /**
+     * Saves the successful results, flushing so that constraint violations surface inside the
+     * caller's transaction. Chunks are converted ahead of persistence, so the pairs that the
+     * existence index reports as probable are checked once more against the books written by
+     * the preceding chunks.
+     */
+    private List<BookUploadResult> save(final List<BookUploadResult> converted) {
+        final Set<String> titles = new HashSet<>();
+        final Set<String> names = new HashSet<>();
+
+        for (BookUploadResult res : converted) {
+            final BookData book = res.book();
+
+            if (res.outcome().equals(UploadResultOutcome.SUCCESS)
+                    && existenceIndex.mightContain(book.getTitle(), book.getAuthorCanonicalName())) {
+                titles.add(book.getTitle());
+                names.add(book.getAuthorCanonicalName());
+            }
+        }
+
+        final Map<TitleAuthorKey, BookData> existing = chunkResolver.findExistingBooks(titles, names);
+
+        final List<BookUploadResult> results = converted.stream()
+                .map(res -> {
+                    // In-file duplicates point to their first row, which may turn out to be stored already
+                    final boolean unsaved = res.outcome().equals(UploadResultOutcome.SUCCESS)
+                            || res.outcome().equals(UploadResultOutcome.TITLE_AUTHOR_EXISTS) && res.book().getId() == 0;
+
+                    if (!unsaved) {
+                        return res;
+                    }
+
+                    final BookData stored = existing.get(
+                            new TitleAuthorKey(res.book().getTitle(), res.book().getAuthorCanonicalName())
+                    );
+
+                    return stored == null ? res : new BookUploadResult(stored, UploadResultOutcome.TITLE_AUTHOR_EXISTS);
+                })
+                .toList();
+
+        final List<BookData> accepted = results.stream()
+                .filter(res -> res.outcome().equals(UploadResultOutcome.SUCCESS))
+                .map(BookUploadResult::book)
+                .toList();
+
+        bookRepository.saveAll(accepted);
+        bookRepository.flush();
+
+        existenceIndex.addAll(accepted.stream()
+                .map(book -> new BookExistenceIndex.Pair(book.getTitle(), book.getAuthorCanonicalName()))
+                .toList());
+        searchIndex.index(accepted.stream().map(BookSearchIndex.Entry::of).toList());
+
+        return results;
+    }
+
+    private void record(final StageMetrics metrics, final StageStatistics statistics, final int rows, final long start) {
+        final long elapsed = System.nanoTime() - start;
+
+        metrics.rows.increment(rows);
+        metrics.timer.record(elapsed, TimeUnit.NANOSECONDS);
+
+        statistics.rows.add(rows);
+        statistics.nanos.add(elapsed);
+    }
+
+    private static ConvertedChunk await(final Future<ConvertedChunk> next) throws IOException, InterruptedException {
+        try {
+            return next.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static int countSuccessful(final List<BookUploadResult> results) {
+        return (int) results.stream()
+                .filter(res -> res.outcome().equals(UploadResultOutcome.SUCCESS))
+                .count();
+    }
+
+    /**
+     * Service-wide meters: {@code books.upload.rows} counts the rows a stage handled and
+     * {@code books.upload.stage} times its work per chunk, both tagged with the stage name
+     */
+    private static final class StageMetrics {
+        private final Counter rows;
+
+        private final Timer timer;
+
+        private StageMetrics(String stage, MeterRegistry registry) {
+            this.rows = Counter.builder("books.upload.rows").tag("stage", stage).register(registry);
+            this.timer = Timer.builder("books.upload.stage").tag("stage", stage).register(registry);
+        }
+    }
+
+    /**
+     * Busy time and row count of one stage within a single upload
+     */
+    private static final class StageStatistics {
+        private final LongAdder rows = new LongAdder();
+
+        private final LongAdder nanos = new LongAdder();
+
+        private long rowsPerSecond() {
+            final long busy = nanos.sum();
+
+            return busy == 0 ? 0 : rows.sum() * TimeUnit.SECONDS.toNanos(1) / busy;
+        }
+    }
+
+    private static final class UploadStatistics {
+        private final StageStatistics parse = new StageStatistics();
+
+        private final StageStatistics convert = new StageStatistics();
+
+        private final StageStatistics persist = new StageStatistics();
+    }
+}
@@ -0,0 +1,42 @@
+package com.dmytrozah.profitsoft.service.impl.upload;
+
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadDto;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadFormat;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Opens an uploaded file as an iterator of {@link BookUploadDto} records, parsed one at a time
+ */
+@Component
+public class BookUploadReader {
+
+    // A root-level array is read element by element, and a bare sequence of objects (NDJSON) value by value
+    private static final ObjectReader jsonReader = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .build()
+            .readerFor(BookUploadDto.class);
+
+    private static final ObjectReader csvReader = CsvMapper.builder()
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .addModule(new JavaTimeModule())
+            .build()
+            .readerFor(BookUploadDto.class)
+            .with(CsvSchema.emptySchema().withHeader());
+
+    MappingIterator<BookUploadDto> read(final InputStream in, final BookUploadFormat format) throws IOException {
+        return switch (format) {
+            case JSON, NDJSON -> jsonReader.readValues(in);
+            case CSV -> csvReader.readValues(in);
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.dmytrozah.profitsoft.service.impl.upload;
+
+import com.dmytrozah.profitsoft.domain.entity.BookAuthorData;
+import com.dmytrozah.profitsoft.domain.entity.BookData;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Authors and already existing books referenced by one upload chunk,
+ * resolved up front so that rows can be converted without database calls.
+ */
+record BookUploadResolution(Set<String> lowerAuthorNames,
+                            Map<String, BookAuthorData> authorsByCanonicalName,
+                            Map<Long, BookAuthorData> authorsById,
+                            Map<TitleAuthorKey, BookData> existingBooks) {
+
+    boolean authorExistsIgnoreCase(String canonicalName) {
+        return canonicalName != null && lowerAuthorNames.contains(canonicalName.toLowerCase(Locale.ROOT));
+    }
+
+    Optional<BookAuthorData> authorByCanonicalName(String canonicalName) {
+        return Optional.ofNullable(authorsByCanonicalName.get(canonicalName));
+    }
+
+    Optional<BookAuthorData> authorById(long id) {
+        return Optional.ofNullable(authorsById.get(id));
+    }
+
+    Optional<BookData> existingBook(String title, String canonicalName) {
+        return Optional.ofNullable(existingBooks.get(new TitleAuthorKey(title, canonicalName)));
+    }
+
+    record TitleAuthorKey(String title, String authorCanonicalName) {
+    }
+}
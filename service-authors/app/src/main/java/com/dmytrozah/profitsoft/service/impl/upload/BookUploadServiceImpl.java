@@ -1,126 +1,82 @@
 package com.dmytrozah.profitsoft.service.impl.upload;
 
-import com.dmytrozah.profitsoft.domain.BookUploadResult;
 import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadDto;
-import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadResultDto;
-import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadResultsResponse;
-import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadResultOutcome;
-import com.dmytrozah.profitsoft.domain.entity.BookAuthorData;
-import com.dmytrozah.profitsoft.domain.entity.BookData;
-import com.dmytrozah.profitsoft.domain.entity.mapper.BookUploadMapper;
-import com.dmytrozah.profitsoft.domain.repository.BookAuthorRepository;
-import com.dmytrozah.profitsoft.domain.repository.BookRepository;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadFormat;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadMode;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadResultsMode;
+import com.dmytrozah.profitsoft.service.BookUploadResultSink;
 import com.dmytrozah.profitsoft.service.BookUploadService;
-import com.dmytrozah.profitsoft.service.exception.BookNotFoundException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.apache.tomcat.util.http.fileupload.FileUploadException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.time.LocalDate;
-import java.util.List;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 
 @Service
 @RequiredArgsConstructor
 public class BookUploadServiceImpl implements BookUploadService {
-    static final ObjectMapper mapper = new ObjectMapper();
+    static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
 
-    private final BookUploadMapper uploadMapper;
+    private final BookUploadReader uploadReader;
 
-    private final BookRepository bookRepository;
+    private final BookUploadPipeline pipeline;
 
-    private final BookAuthorRepository authorRepository;
+    private final BookCopyUploader copyUploader;
 
-    @Override
-    public BookUploadResultsResponse uploadFromFile(final MultipartFile file) throws FileUploadException {
-        try {
-            byte[] bytes = file.getBytes();
-
-            List<BookUploadDto> uploads = mapper.readValue(bytes, new TypeReference<>() {
-            });
-            List<BookUploadResult> results = uploads.stream()
-                    .map(this::convertFromUpload)
-                    .toList();
-
-            List<BookData> bulkSave = results.stream()
-                    .filter(res -> res.outcome().equals(UploadResultOutcome.SUCCESS))
-                    .map(BookUploadResult::book)
-                    .toList();
-
-            bulkSave = bookRepository.saveAll(bulkSave);
-
-            List<BookUploadResultDto> resultDtos = results.stream()
-                    .map(this.uploadMapper::toDto)
-                    .toList();
-
-            final int successfulUploads = bulkSave.size();
-
-            return new BookUploadResultsResponse(
-                    resultDtos,
-                    successfulUploads,
-                    uploads.size() - successfulUploads
-            );
-        } catch (IOException e) {
-            throw new FileUploadException(e.getMessage());
-        }
-    }
-
-    private BookUploadResult convertFromUpload(BookUploadDto bookUploadDto) throws BookNotFoundException {
-        BookData bookData = new BookData();
+    private final ObjectMapper objectMapper;
 
-        bookData.setTitle(bookUploadDto.getTitle());
-        bookData.setAuthorCanonicalName(bookUploadDto.getAuthorName());
+    private final BookUploadSpool spool;
 
-        if (!authorRepository.existsByCanonicalNameIgnoreCase(bookUploadDto.getAuthorName())) {
-            return new BookUploadResult(bookData, UploadResultOutcome.AUTHOR_NOT_FOUND);
-        }
+    @Override
+    public void streamFromFile(final MultipartFile file,
+                               final UploadMode mode,
+                               final UploadResultsMode resultsMode,
+                               final HttpServletResponse response) throws FileUploadException {
+        spool.checkSize(file);
 
-        if (bookRepository.existsByTitleAndAuthorCanonicalName(
-                bookUploadDto.getTitle(), bookUploadDto.getAuthorName())
-        ) {
-            bookData = bookRepository.findAllByAuthorCanonicalNameAndTitle(
-                    bookUploadDto.getAuthorName(),
-                    bookUploadDto.getTitle()
-            ).getFirst();
+        response.setStatus(HttpServletResponse.SC_CREATED);
+        response.setContentType(NDJSON_CONTENT_TYPE);
 
-            return new BookUploadResult(bookData, UploadResultOutcome.TITLE_AUTHOR_EXISTS);
-        }
+        try (InputStream in = spool.open(file)) {
+            final NdjsonResultSink sink = new NdjsonResultSink(objectMapper, response.getOutputStream(), resultsMode);
 
-        BookAuthorData author = null;
+            this.upload(in, BookUploadFormat.of(file.getContentType(), file.getOriginalFilename()), mode, sink);
 
-        if (bookUploadDto.getAuthorName() != null) {
-            author = authorRepository.findByCanonicalName(bookUploadDto.getAuthorName())
-                    .orElse(null);
-        }
-
-        if (bookUploadDto.getAuthorId() != -1) {
-            author = authorRepository.findById(bookUploadDto.getAuthorId())
-                    .orElse(null);
+            sink.finish();
+        } catch (IOException | UncheckedIOException e) {
+            throw new FileUploadException(e.getMessage());
         }
+    }
 
-        if (author == null) {
-            return new BookUploadResult(
-                    bookData,
-                    UploadResultOutcome.AUTHOR_NOT_FOUND
-            );
-        }
+    @Override
+    public void upload(final InputStream in,
+                       final BookUploadFormat format,
+                       final UploadMode mode,
+                       final BookUploadResultSink sink) throws IOException {
+        this.upload(in, format, mode, 0, sink);
+    }
 
-        bookData.setAuthor(author);
-        bookData.setGenres(bookUploadDto.getGenres());
-
-        if (bookUploadDto.getPublication() != null) {
-            bookData.setPublication(bookUploadDto.getPublication());
-        } else if (bookUploadDto.getPublicationYear() != -1) {
-            bookData.setPublication(
-                    LocalDate.of(bookUploadDto.getPublicationYear(), 1, 1)
-            );
-        } else {
-            bookData.setPublication(LocalDate.now());
+    @Override
+    public void upload(final InputStream in,
+                       final BookUploadFormat format,
+                       final UploadMode mode,
+                       final long skipRows,
+                       final BookUploadResultSink sink) throws IOException {
+        try (MappingIterator<BookUploadDto> uploads = uploadReader.read(in, format)) {
+            for (long row = 0; row < skipRows && uploads.hasNextValue(); row++) {
+                uploads.nextValue();
+            }
+
+            switch (mode) {
+                case BATCH -> pipeline.run(uploads, sink);
+                case COPY -> copyUploader.upload(uploads, sink);
+            }
         }
-
-        return new BookUploadResult(bookData, UploadResultOutcome.SUCCESS);
     }
 }
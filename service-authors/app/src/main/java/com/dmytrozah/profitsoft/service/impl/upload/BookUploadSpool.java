@@ -0,0 +1,127 @@
+package com.dmytrozah.profitsoft.service.impl.upload;
+
+import com.dmytrozah.profitsoft.service.exception.UploadTooLargeException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Copies uploaded files to a local directory so that they outlive the request that carried them,
+ * and opens them for parsing: large files through a memory-mapped channel, off the Java heap
+ */
+@Slf4j
+@Component
+public class BookUploadSpool {
+
+    @Value("${books.upload.spool-dir:${java.io.tmpdir}/book-uploads}")
+    private Path spoolDir;
+
+    @Value("${books.upload.max-size:512MB}")
+    private DataSize maxSize;
+
+    // Spooled files from this size on are parsed through a memory mapping
+    @Value("${books.upload.spool-threshold:1MB}")
+    private DataSize spoolThreshold;
+
+    /**
+     * Rejects files above {@code books.upload.max-size} before anything is read from them
+     */
+    void checkSize(final MultipartFile file) {
+        if (file.getSize() > maxSize.toBytes()) {
+            throw new UploadTooLargeException(maxSize);
+        }
+    }
+
+    /**
+     * Spools the file and hashes its content on the way, without reading it twice
+     */
+    SpooledUpload spool(final MultipartFile file, final UUID id) throws IOException {
+        this.checkSize(file);
+
+        Files.createDirectories(spoolDir);
+
+        final Path target = spoolDir.resolve(id + ".upload");
+        final MessageDigest digest = sha256();
+
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            Files.copy(in, target);
+        }
+
+        return new SpooledUpload(target, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    InputStream open(final Path path) throws IOException {
+        if (Files.size(path) >= spoolThreshold.toBytes()) {
+            return new MappedFileInputStream(path);
+        }
+
+        return new BufferedInputStream(Files.newInputStream(path));
+    }
+
+    /**
+     * Opens an upload that is parsed while its request is being answered. Files from the spool
+     * threshold on are spooled first and read through a memory mapping as well; their copy is
+     * removed when the stream is closed.
+     */
+    InputStream open(final MultipartFile file) throws IOException {
+        if (file.getSize() < spoolThreshold.toBytes()) {
+            return file.getInputStream();
+        }
+
+        Files.createDirectories(spoolDir);
+
+        final Path target = spoolDir.resolve(UUID.randomUUID() + ".upload");
+
+        try {
+            file.transferTo(target);
+
+            return new FilterInputStream(new MappedFileInputStream(target)) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        BookUploadSpool.this.delete(target);
+                    }
+                }
+            };
+        } catch (IOException e) {
+            this.delete(target);
+
+            throw e;
+        }
+    }
+
+    void delete(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled upload {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    record SpooledUpload(Path path, String sha256) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.dmytrozah.profitsoft.service.impl.upload;
+
+import com.dmytrozah.profitsoft.domain.BookUploadResult;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadDto;
+
+import java.util.List;
+
+/**
+ * Uploaded rows of one chunk next to their conversion results, in input order
+ */
+record ConvertedChunk(List<BookUploadDto> rows, List<BookUploadResult> results) {
+}
@@ -0,0 +1,73 @@
+package com.dmytrozah.profitsoft.service.impl.upload;
+
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadResultDto;
+import com.dmytrozah.profitsoft.domain.entity.BookUploadJobResultData;
+import com.dmytrozah.profitsoft.domain.entity.mapper.BookUploadJobMapper;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.LongFunction;
+
+/**
+ * Stored results of a job, read one keyset page at a time while the response is serialized, so
+ * that replaying a large upload never holds more than a page in memory
+ */
+class JobResultPages implements Iterable<BookUploadResultDto> {
+    private final LongFunction<List<BookUploadJobResultData>> pageAfter;
+
+    private final int pageSize;
+
+    private final BookUploadJobMapper jobMapper;
+
+    /**
+     * @param pageAfter reads up to {@code pageSize} results following the given row number
+     */
+    JobResultPages(LongFunction<List<BookUploadJobResultData>> pageAfter, int pageSize, BookUploadJobMapper jobMapper) {
+        this.pageAfter = pageAfter;
+        this.pageSize = pageSize;
+        this.jobMapper = jobMapper;
+    }
+
+    @Override
+    public Iterator<BookUploadResultDto> iterator() {
+        return new Iterator<>() {
+            private List<BookUploadJobResultData> page = List.of();
+
+            private int index;
+
+            private long lastRowNum = -1;
+
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                if (index < page.size()) {
+                    return true;
+                }
+
+                if (exhausted) {
+                    return false;
+                }
+
+                page = pageAfter.apply(lastRowNum);
+                index = 0;
+                exhausted = page.size() < pageSize;
+
+                return !page.isEmpty();
+            }
+
+            @Override
+            public BookUploadResultDto next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                final BookUploadJobResultData result = page.get(index++);
+                lastRowNum = result.getRowNum();
+
+                return jobMapper.toResultDto(result);
+            }
+        };
+    }
+}
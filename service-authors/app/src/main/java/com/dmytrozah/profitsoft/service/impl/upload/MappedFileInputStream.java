@@ -0,0 +1,89 @@
+package com.dmytrozah.profitsoft.service.impl.upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file through a memory-mapped {@link FileChannel}, one window at a time, so that the
+ * content is paged in by the OS outside the Java heap. Windows keep single mappings below the
+ * 2 GB limit of a {@link MappedByteBuffer}.
+ */
+class MappedFileInputStream extends InputStream {
+
+    private static final long WINDOW_SIZE = 256L * 1024 * 1024;
+
+    private final FileChannel channel;
+
+    private final long size;
+
+    private long windowStart;
+
+    private MappedByteBuffer window;
+
+    MappedFileInputStream(final Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+
+        this.map(0);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!this.ensureRemaining()) {
+            return -1;
+        }
+
+        return window.get() & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        if (!this.ensureRemaining()) {
+            return -1;
+        }
+
+        final int count = Math.min(len, window.remaining());
+        window.get(b, off, count);
+
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return window.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean ensureRemaining() throws IOException {
+        if (window.hasRemaining()) {
+            return true;
+        }
+
+        final long next = windowStart + window.capacity();
+
+        if (next >= size) {
+            return false;
+        }
+
+        this.map(next);
+
+        return true;
+    }
+
+    private void map(final long start) throws IOException {
+        this.windowStart = start;
+        this.window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, size - start));
+    }
+}
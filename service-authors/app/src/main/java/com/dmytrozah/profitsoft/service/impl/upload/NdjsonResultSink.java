@@ -0,0 +1,62 @@
+package com.dmytrozah.profitsoft.service.impl.upload;
+
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadResultDto;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadResultsResponse;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadResultsMode;
+import com.dmytrozah.profitsoft.service.BookUploadResultSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Writes results as newline-delimited JSON as soon as their chunk is stored, one result per line,
+ * and closes the stream with a summary line carrying the counts
+ */
+class NdjsonResultSink implements BookUploadResultSink {
+    private final UploadResultsMode resultsMode;
+
+    private final OutputStream out;
+
+    private final SequenceWriter writer;
+
+    private int successfulUploads;
+
+    private int failedUploads;
+
+    NdjsonResultSink(ObjectMapper mapper, OutputStream out, UploadResultsMode resultsMode) throws IOException {
+        this.resultsMode = resultsMode;
+        this.out = out;
+        this.writer = mapper.writer().withRootValueSeparator("\n").writeValues(out);
+    }
+
+    @Override
+    public void accept(List<BookUploadResultDto> results, int chunkSuccessfulUploads, int chunkFailedUploads) {
+        successfulUploads += chunkSuccessfulUploads;
+        failedUploads += chunkFailedUploads;
+
+        try {
+            writer.writeAll(results);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public UploadResultsMode resultsMode() {
+        return resultsMode;
+    }
+
+    void finish() throws IOException {
+        writer.write(new BookUploadResultsResponse(null, successfulUploads, failedUploads));
+        writer.flush();
+
+        // The separator only goes between values, terminate the last line as well
+        out.write('\n');
+        out.flush();
+    }
+}
@@ -215,6 +215,41 @@ class AuthorControllerTest {
         }
     }
 
+    @Test
+    public void testListAuthorsWithoutTotal() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            String body = buildAuthorSaveJson(firstName + i, lastName + i,
+                    "e" + i + "@ex.com", "p" + i,
+                    street + i, houseNum + i, city + i, country, postCode + i);
+
+            mockMvc.perform(post("/api/authors")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body)
+            ).andExpect(status().isCreated());
+        }
+
+        AuthorListDto first = parseResponse(mockMvc.perform(post("/api/authors/_list")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"size": 3, "page": 0, "with_total": false}
+                        """)
+        ).andExpect(status().isOk()).andReturn(), AuthorListDto.class);
+
+        assertThat(first.getList()).hasSize(3);
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(first.getTotalPages()).isNull();
+
+        AuthorListDto last = parseResponse(mockMvc.perform(post("/api/authors/_list")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"size": 3, "page": 1, "with_total": false}
+                        """)
+        ).andExpect(status().isOk()).andReturn(), AuthorListDto.class);
+
+        assertThat(last.getList()).hasSize(2);
+        assertThat(last.isHasNext()).isFalse();
+    }
+
     @Test
     public void testDeleteAuthorSuccessAndNotFound() throws Exception {
         String body = buildAuthorSaveJson(firstName, lastName, email, phone, street, houseNum, city, country, postCode);
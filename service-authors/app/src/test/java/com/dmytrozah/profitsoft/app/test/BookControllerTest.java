@@ -4,16 +4,26 @@ import com.dmytrozah.profitsoft.Task2App;
 import com.dmytrozah.profitsoft.domain.dto.RestResponse;
 import com.dmytrozah.profitsoft.domain.dto.author.AuthorInfoDto;
 import com.dmytrozah.profitsoft.domain.dto.book.BookDetailsDto;
+import com.dmytrozah.profitsoft.domain.dto.book.BookInfoDto;
 import com.dmytrozah.profitsoft.domain.dto.book.BookListDto;
+import com.dmytrozah.profitsoft.domain.dto.book.report.BookReportDto;
+import com.dmytrozah.profitsoft.domain.dto.book.report.ReportStatus;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadFormat;
 import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadResultsResponse;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadJobStatus;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadMode;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadResultsMode;
 import com.dmytrozah.profitsoft.domain.entity.BookAuthorData;
 import com.dmytrozah.profitsoft.domain.entity.BookData;
+import com.dmytrozah.profitsoft.domain.entity.BookUploadJobData;
 import com.dmytrozah.profitsoft.domain.entity.embeds.AuthorName;
 import com.dmytrozah.profitsoft.domain.repository.BookAuthorRepository;
 import com.dmytrozah.profitsoft.domain.repository.BookRepository;
+import com.dmytrozah.profitsoft.domain.repository.BookUploadJobRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.ZstdInputStream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,15 +35,22 @@ import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.io.ByteArrayInputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(
@@ -54,6 +71,9 @@ public class BookControllerTest {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private BookUploadJobRepository uploadJobRepository;
+
     private String firstName;
     private String lastName;
     private String authorFullName;
@@ -93,6 +113,7 @@ public class BookControllerTest {
 
     @AfterEach
     void cleanup() {
+        uploadJobRepository.deleteAll();
         bookRepository.deleteAll();
         authorRepository.deleteAll();
     }
@@ -233,6 +254,191 @@ public class BookControllerTest {
         }
     }
 
+    @Test
+    public void listBooks_withCursor_shouldPageThroughAllBooksInOrder() throws Exception {
+        BookAuthorData author = authorRepository.findAll().stream().findFirst().orElseThrow();
+
+        for (int i = 0; i < 7; i++) {
+            String itBook = """
+                    {
+                      "title": "%s",
+                      "author_name": "%s",
+                      "author_id": %d,
+                      "genres": "%s"
+                    }
+                    """.formatted(baseBookTitle + (char) ('G' - i), authorFullName, author.getId(), genres);
+
+            mockMvc.perform(post("/api/books")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(itBook))
+                    .andExpect(status().isCreated());
+        }
+
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            String query = cursor == null ? """
+                    {"size": 3, "sort": "TITLE"}
+                    """ : """
+                    {"size": 3, "sort": "TITLE", "cursor": "%s"}
+                    """.formatted(cursor);
+
+            BookListDto page = parseResponse(mockMvc.perform(post("/api/books/_list")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(query))
+                    .andExpect(status().isOk()).andReturn(), BookListDto.class);
+
+            assertThat(page.getTotalPages()).isEqualTo(3);
+            page.getInfos().forEach(info -> titles.add(info.getTitle()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(titles).hasSize(7).isSorted();
+
+        mockMvc.perform(post("/api/books/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"size": 3, "cursor": "not a cursor"}
+                                """))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void listBooks_withSearch_shouldRankByRelevance() throws Exception {
+        BookAuthorData author = authorRepository.findAll().stream().findFirst().orElseThrow();
+
+        String[][] books = {
+                {"Wolf Tales", "Sea,Adventure"},
+                {"The Sea Wolf", "Adventure"},
+                {"Desert Roads", "Drama"}
+        };
+
+        for (String[] book : books) {
+            String itBook = """
+                    {
+                      "title": "%s",
+                      "author_name": "%s",
+                      "author_id": %d,
+                      "genres": "%s"
+                    }
+                    """.formatted(book[0], authorFullName, author.getId(), book[1]);
+
+            mockMvc.perform(post("/api/books")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(itBook))
+                    .andExpect(status().isCreated());
+        }
+
+        BookListDto found = parseResponse(mockMvc.perform(post("/api/books/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"filters": [{"attribute": "SEARCH", "value": "sea wolf"}]}
+                                """))
+                .andExpect(status().isOk()).andReturn(), BookListDto.class);
+
+        // Both words in the title outweigh a title and a genre match
+        assertThat(found.getInfos()).extracting(BookInfoDto::getTitle)
+                .containsExactly("The Sea Wolf", "Wolf Tales");
+        assertThat(found.getTotalPages()).isEqualTo(1);
+    }
+
+    @Test
+    public void searchBooks_shouldMatchPrefixesAndTypos() throws Exception {
+        BookAuthorData author = authorRepository.findAll().stream().findFirst().orElseThrow();
+
+        String[][] books = {
+                {"Lanterns of Kharkiv", "Drama"},
+                {"Steppe Lanterns", "Poetry"},
+                {"Harbour Lights", "Drama"}
+        };
+
+        for (String[] book : books) {
+            String itBook = """
+                    {
+                      "title": "%s",
+                      "author_name": "%s",
+                      "author_id": %d,
+                      "genres": "%s"
+                    }
+                    """.formatted(book[0], authorFullName, author.getId(), book[1]);
+
+            mockMvc.perform(post("/api/books")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(itBook))
+                    .andExpect(status().isCreated());
+        }
+
+        // The index is refreshed in the background, shortly after the books were committed
+        BookListDto prefix = null;
+        for (int attempt = 0; attempt < 50; attempt++) {
+            prefix = parseResponse(mockMvc.perform(get("/api/books/_search").param("q", "lante"))
+                    .andExpect(status().isOk()).andReturn(), BookListDto.class);
+
+            if (prefix.getInfos().size() == 2) {
+                break;
+            }
+
+            Thread.sleep(100);
+        }
+
+        assertThat(prefix.getInfos()).extracting(BookInfoDto::getTitle)
+                .containsExactlyInAnyOrder("Lanterns of Kharkiv", "Steppe Lanterns");
+
+        BookListDto typos = parseResponse(mockMvc.perform(get("/api/books/_search").param("q", "lantrens khrakiv"))
+                .andExpect(status().isOk()).andReturn(), BookListDto.class);
+
+        assertThat(typos.getInfos()).extracting(BookInfoDto::getTitle).containsExactly("Lanterns of Kharkiv");
+        assertThat(typos.isHasNext()).isFalse();
+
+        mockMvc.perform(get("/api/books/_search").param("q", "lanterns").param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void listBooks_withoutTotal_shouldReportNextPage() throws Exception {
+        BookAuthorData author = authorRepository.findAll().stream().findFirst().orElseThrow();
+
+        for (int i = 0; i < 5; i++) {
+            String itBook = """
+                    {
+                      "title": "%s",
+                      "author_name": "%s",
+                      "author_id": %d,
+                      "genres": "%s"
+                    }
+                    """.formatted(baseBookTitle + i, authorFullName, author.getId(), genres);
+
+            mockMvc.perform(post("/api/books")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(itBook))
+                    .andExpect(status().isCreated());
+        }
+
+        BookListDto second = parseResponse(mockMvc.perform(post("/api/books/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"size": 2, "page": 1, "with_total": false}
+                                """))
+                .andExpect(status().isOk()).andReturn(), BookListDto.class);
+
+        assertThat(second.getInfos()).extracting(BookInfoDto::getTitle)
+                .containsExactly(baseBookTitle + 2, baseBookTitle + 3);
+        assertThat(second.isHasNext()).isTrue();
+        assertThat(second.getTotalPages()).isNull();
+
+        BookListDto last = parseResponse(mockMvc.perform(post("/api/books/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"size": 2, "page": 2, "with_total": false, "approximate_total": true}
+                                """))
+                .andExpect(status().isOk()).andReturn(), BookListDto.class);
+
+        assertThat(last.getInfos()).hasSize(1);
+        assertThat(last.isHasNext()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+    }
+
     @Test
     public void deleteBook_shouldRemove_and_doubleDeleteReturns404() throws Exception {
         BookAuthorData author = authorRepository.findAll().stream().findFirst().orElse(null);
@@ -287,7 +493,7 @@ public class BookControllerTest {
                     .andExpect(status().isCreated());
         }
 
-        MvcResult reportRes = mockMvc.perform(post("/api/books/_report"))
+        MvcResult reportRes = this.performReport(post("/api/books/_report"))
                 .andExpect(status().isOk())
                 .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_OCTET_STREAM_VALUE))
                 .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=books.csv"))
@@ -305,7 +511,7 @@ public class BookControllerTest {
                 }
                 """.formatted(authorId);
 
-        MvcResult filtered = mockMvc.perform(post("/api/books/_report")
+        MvcResult filtered = this.performReport(post("/api/books/_report")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(filterJson))
                 .andExpect(status().isOk())
@@ -320,6 +526,248 @@ public class BookControllerTest {
         }
     }
 
+    @Test
+    public void generateReport_compressed() throws Exception {
+        BookAuthorData author = authorRepository.findAll().stream().findFirst().orElseThrow();
+
+        for (int i = 0; i < 3; i++) {
+            String itBook = """
+                    {
+                      "title": "%s",
+                      "author_name": "%s",
+                      "author_id": %d,
+                      "genres": "%s"
+                    }
+                    """.formatted(baseBookTitle + i, authorFullName, author.getId(), genres);
+
+            mockMvc.perform(post("/api/books")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(itBook))
+                    .andExpect(status().isCreated());
+        }
+
+        MvcResult gzipped = this.performReport(post("/api/books/_report")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0.8, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=books.csv"))
+                .andReturn();
+
+        String content = new String(new GZIPInputStream(
+                new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertThat(content).startsWith("Title,Author\n").contains(baseBookTitle + 2);
+
+        MvcResult zstd = this.performReport(post("/api/books/_report?compression=zstd"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=books.csv.zst"))
+                .andReturn();
+
+        String zstdContent = new String(new ZstdInputStream(
+                new ByteArrayInputStream(zstd.getResponse().getContentAsByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertThat(zstdContent).isEqualTo(content);
+    }
+
+    @Test
+    public void generateReport_cachedWithEtag_andAsync() throws Exception {
+        BookAuthorData author = authorRepository.findAll().stream().findFirst().orElseThrow();
+        String bookJson = """
+                {
+                  "title": "%s",
+                  "author_name": "%s",
+                  "author_id": %d,
+                  "genres": "%s"
+                }
+                """;
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/books")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(bookJson.formatted(baseBookTitle + i, authorFullName, author.getId(), genres)))
+                    .andExpect(status().isCreated());
+        }
+
+        MvcResult first = this.performReport(post("/api/books/_report"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        String content = first.getResponse().getContentAsString();
+        assertThat(etag).isNotBlank();
+
+        mockMvc.perform(post("/api/books/_report").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        MvcResult cached = this.performReport(post("/api/books/_report"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andReturn();
+        assertThat(cached.getResponse().getContentAsString()).isEqualTo(content);
+
+        MvcResult submitted = mockMvc.perform(post("/api/books/_report").param("async", "true"))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        String reportId = parseResponse(submitted, RestResponse.class).getMessage();
+        assertThat(etag).isEqualTo("\"" + reportId + "\"");
+
+        MvcResult polled = mockMvc.perform(get("/api/books/_report/{id}", reportId))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(parseResponse(polled, BookReportDto.class).getStatus()).isEqualTo(ReportStatus.COMPLETED);
+
+        MvcResult downloaded = this.performReport(get("/api/books/_report/{id}/content", reportId))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(downloaded.getResponse().getContentAsString()).isEqualTo(content);
+
+        mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bookJson.formatted(baseBookTitle + 2, authorFullName, author.getId(), genres)))
+                .andExpect(status().isCreated());
+
+        MvcResult changed = this.performReport(post("/api/books/_report").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(changed.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+        assertThat(changed.getResponse().getContentAsString()).contains(baseBookTitle + 2);
+
+        mockMvc.perform(get("/api/books/_report/{id}", "0".repeat(64)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void generateReport_xlsxAndParquet() throws Exception {
+        BookAuthorData author = authorRepository.findAll().stream().findFirst().orElseThrow();
+
+        mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "title": "%s",
+                                  "author_name": "%s",
+                                  "author_id": %d,
+                                  "genres": "%s"
+                                }
+                                """.formatted(baseBookTitle, authorFullName, author.getId(), genres)))
+                .andExpect(status().isCreated());
+
+        MvcResult xlsx = this.performReport(post("/api/books/_report")
+                        .param("format", "xlsx")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=books.xlsx"))
+                .andReturn();
+
+        // Zip container
+        assertThat(xlsx.getResponse().getContentAsByteArray()).startsWith('P', 'K');
+
+        MvcResult parquet = this.performReport(post("/api/books/_report").param("format", "parquet"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=books.parquet"))
+                .andReturn();
+
+        byte[] parquetContent = parquet.getResponse().getContentAsByteArray();
+        assertThat(parquetContent).startsWith('P', 'A', 'R', '1').endsWith('P', 'A', 'R', '1');
+
+        mockMvc.perform(post("/api/books/_report").param("format", "pdf"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void generateReport_partitioned_shouldMatchSequentialReport() throws Exception {
+        BookAuthorData author = authorRepository.findAll().stream().findFirst().orElseThrow();
+
+        for (int i = 0; i < 20; i++) {
+            String itBook = """
+                    {
+                      "title": "%s",
+                      "author_name": "%s",
+                      "author_id": %d,
+                      "genres": "%s"
+                    }
+                    """.formatted(baseBookTitle + i, authorFullName, author.getId(), genres);
+
+            mockMvc.perform(post("/api/books")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(itBook))
+                    .andExpect(status().isCreated());
+        }
+
+        String sequential = this.performReport(post("/api/books/_report"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        MvcResult partitioned = this.performReport(post("/api/books/_report")
+                        .param("partitioned", "true")
+                        .param("compression", "gzip"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // One gzip member per partition, read back as a single stream
+        String content = new String(new GZIPInputStream(
+                new ByteArrayInputStream(partitioned.getResponse().getContentAsByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+
+        assertThat(content).startsWith("Title,Author\n");
+        assertThat(content.lines().sorted().toList()).isEqualTo(sequential.lines().sorted().toList());
+    }
+
+    @Test
+    public void generateReport_withFiltersAndColumns() throws Exception {
+        BookAuthorData author = authorRepository.findAll().stream().findFirst().orElseThrow();
+
+        for (int i = 0; i < 6; i++) {
+            String itBook = """
+                    {
+                      "title": "%s",
+                      "publish_date": "%s",
+                      "author_name": "%s",
+                      "author_id": %d,
+                      "genres": "%s"
+                    }
+                    """.formatted(baseBookTitle + i, LocalDate.of(2000 + i, 1, 1), authorFullName, author.getId(),
+                    i % 2 == 0 ? "Drama" : "Poetry");
+
+            mockMvc.perform(post("/api/books")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(itBook))
+                    .andExpect(status().isCreated());
+        }
+
+        String query = """
+                {
+                  "filters": [
+                    {"attribute": "GENRE", "value": "drama"},
+                    {"attribute": "PUBLISHED_FROM", "value": "2001-06-01"},
+                    {"attribute": "PUBLISHED_TO", "value": "2005-01-01"}
+                  ],
+                  "columns": ["TITLE", "PUBLICATION"]
+                }
+                """;
+
+        String content = this.performReport(post("/api/books/_report")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(content.lines().toList()).containsExactlyInAnyOrder(
+                "Title,Publication",
+                baseBookTitle + "2,2002-01-01",
+                baseBookTitle + "4,2004-01-01");
+    }
+
+    private ResultActions performReport(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(asyncDispatch(started));
+    }
+
     @Test
     public void getBook_shouldReturnDetailsJson() throws Exception {
         BookAuthorData author = authorRepository.findAll().stream().findFirst().orElse(null);
@@ -555,6 +1003,280 @@ public class BookControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    public void upload_copyMode_shouldMergeRows_andReportOutcomes() throws Exception {
+        BookAuthorData author = authorRepository.findAll().stream().findFirst().orElse(null);
+        assertThat(author).isNotNull();
+
+        String canonical = getCanonicalName(author, authorFullName);
+
+        String payload = """
+                [
+                  {"title":"CP-1","author":"%s","genre":"A","year_published":2001},
+                  {"title":"CP-2","author":"NoSuchAuthor","genre":"B"},
+                  {"title":"CP-3","author":"%s","author_id":%d,"genre":"C"}
+                ]
+                """.formatted(canonical, canonical, author.getId());
+
+        MockMultipartFile file =
+                new MockMultipartFile("file", "upload.json", MediaType.APPLICATION_JSON_VALUE, payload.getBytes());
+
+        MvcResult res = mockMvc.perform(multipart("/api/books/upload").file(file).param("mode", "copy"))
+                .andExpect(status().isCreated()).andReturn();
+
+        var results = mapper.readTree(res.getResponse().getContentAsString()).get("results");
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).get("outcome").asText()).isEqualTo("SUCCESS");
+        assertThat(results.get(1).get("outcome").asText()).isEqualTo("AUTHOR_NOT_FOUND");
+        assertThat(results.get(2).get("outcome").asText()).isEqualTo("SUCCESS");
+
+        assertThat(bookRepository.count()).isEqualTo(2);
+
+        BookData saved = bookRepository.findAllByAuthorCanonicalNameAndTitle(canonical, "CP-1").getFirst();
+        assertThat(saved.getAuthor().getId()).isEqualTo(author.getId());
+        assertThat(saved.getPublication()).isEqualTo(LocalDate.of(2001, 1, 1));
+
+        mockMvc.perform(multipart("/api/books/upload").file(file).param("mode", "copy"))
+                .andExpect(status().isCreated());
+
+        assertThat(bookRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    public void upload_async_shouldReturnJobId_andExposeProgress() throws Exception {
+        BookAuthorData author = authorRepository.findAll().stream().findFirst().orElse(null);
+        assertThat(author).isNotNull();
+
+        String canonical = getCanonicalName(author, authorFullName);
+
+        String payload = """
+                [
+                  {"title":"AS-1","author":"%s","genre":"A"},
+                  {"title":"AS-2","author":"NoSuchAuthor","genre":"B"}
+                ]
+                """.formatted(canonical);
+
+        MockMultipartFile file =
+                new MockMultipartFile("file", "upload.json", MediaType.APPLICATION_JSON_VALUE, payload.getBytes());
+
+        MvcResult submitted = mockMvc.perform(multipart("/api/books/upload").file(file).param("async", "true"))
+                .andExpect(status().isAccepted()).andReturn();
+
+        String jobId = parseResponse(submitted, RestResponse.class).getMessage();
+
+        var job = mapper.readTree("{}");
+        for (int attempt = 0; attempt < 50; attempt++) {
+            MvcResult polled = mockMvc.perform(get("/api/books/upload/" + jobId).param("size", "1"))
+                    .andExpect(status().isOk()).andReturn();
+
+            job = mapper.readTree(polled.getResponse().getContentAsString());
+            if (!job.path("status").asText().matches("QUEUED|RUNNING")) {
+                break;
+            }
+
+            Thread.sleep(100);
+        }
+
+        assertThat(job.get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(job.get("processed_rows").asLong()).isEqualTo(2);
+        assertThat(job.get("successful_uploads").asLong()).isEqualTo(1);
+        assertThat(job.get("failed_uploads").asLong()).isEqualTo(1);
+        assertThat(job.get("total_pages").asInt()).isEqualTo(2);
+        assertThat(job.get("results").get(0).get("outcome").asText()).isEqualTo("SUCCESS");
+
+        mockMvc.perform(get("/api/books/upload/" + java.util.UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void upload_ndjsonAndCsv_shouldCreateBooks() throws Exception {
+        BookAuthorData author = authorRepository.findAll().stream().findFirst().orElse(null);
+        assertThat(author).isNotNull();
+
+        String canonical = getCanonicalName(author, authorFullName);
+
+        String ndjson = """
+                {"title":"ND-1","author":"%s","genre":"A","publication":"2011-03-04"}
+                {"title":"ND-2","author":"%s","genre":"B","year_published":1990}
+                """.formatted(canonical, canonical);
+
+        mockMvc.perform(multipart("/api/books/upload").file(new MockMultipartFile(
+                        "file", "upload.ndjson", "application/x-ndjson", ndjson.getBytes())))
+                .andExpect(status().isCreated());
+
+        String csv = """
+                title,author,author_id,genre,publication,year_published
+                CSV-1,%s,%d,"Drama,Adventure",,1985
+                CSV-2,%s,,Poetry,2001-02-03,
+                """.formatted(canonical, author.getId(), canonical);
+
+        mockMvc.perform(multipart("/api/books/upload").file(new MockMultipartFile(
+                        "file", "upload.csv", "text/csv", csv.getBytes())))
+                .andExpect(status().isCreated());
+
+        assertThat(bookRepository.findAllByAuthorCanonicalNameAndTitle(canonical, "ND-1").getFirst().getPublication())
+                .isEqualTo(LocalDate.of(2011, 3, 4));
+        assertThat(bookRepository.findAllByAuthorCanonicalNameAndTitle(canonical, "ND-2").getFirst().getPublication())
+                .isEqualTo(LocalDate.of(1990, 1, 1));
+
+        BookData csvBook = bookRepository.findAllByAuthorCanonicalNameAndTitle(canonical, "CSV-1").getFirst();
+        assertThat(csvBook.getGenres()).isEqualTo("Drama,Adventure");
+        assertThat(csvBook.getPublication()).isEqualTo(LocalDate.of(1985, 1, 1));
+        assertThat(bookRepository.findAllByAuthorCanonicalNameAndTitle(canonical, "CSV-2").getFirst().getPublication())
+                .isEqualTo(LocalDate.of(2001, 2, 3));
+    }
+
+    @Test
+    public void upload_duplicatesWithinFile_shouldInsertOnce() throws Exception {
+        BookAuthorData author = authorRepository.findAll().stream().findFirst().orElse(null);
+        assertThat(author).isNotNull();
+
+        String canonical = getCanonicalName(author, authorFullName);
+
+        for (String mode : new String[]{"batch", "copy"}) {
+            String payload = """
+                    [
+                      {"title":"DUP-%s","author":"%s","genre":"A"},
+                      {"title":"DUP-%s","author":"%s","genre":"B"}
+                    ]
+                    """.formatted(mode, canonical, mode, canonical);
+
+            MockMultipartFile file =
+                    new MockMultipartFile("file", "upload.json", MediaType.APPLICATION_JSON_VALUE, payload.getBytes());
+
+            MvcResult res = mockMvc.perform(multipart("/api/books/upload").file(file).param("mode", mode))
+                    .andExpect(status().isCreated()).andReturn();
+
+            var results = mapper.readTree(res.getResponse().getContentAsString()).get("results");
+            assertThat(results.get(0).get("outcome").asText()).isEqualTo("SUCCESS");
+            assertThat(results.get(1).get("outcome").asText()).isEqualTo("TITLE_AUTHOR_EXISTS");
+
+            assertThat(bookRepository.findAllByAuthorCanonicalNameAndTitle(canonical, "DUP-" + mode)).hasSize(1);
+        }
+    }
+
+    @Test
+    public void upload_summaryAndStreamingResults() throws Exception {
+        BookAuthorData author = authorRepository.findAll().stream().findFirst().orElse(null);
+        assertThat(author).isNotNull();
+
+        String canonical = getCanonicalName(author, authorFullName);
+
+        String ndjson = """
+                {"title":"SUM-1","author":"%s","genre":"A"}
+                {"title":"SUM-2","author":"NoSuchAuthor","genre":"B"}
+                """.formatted(canonical);
+
+        MvcResult failures = mockMvc.perform(multipart("/api/books/upload").file(new MockMultipartFile(
+                        "file", "upload.ndjson", "application/x-ndjson", ndjson.getBytes()))
+                        .param("results", "failures"))
+                .andExpect(status().isCreated()).andReturn();
+
+        var body = mapper.readTree(failures.getResponse().getContentAsString());
+        assertThat(body.get("successfulUploads").asInt()).isEqualTo(1);
+        assertThat(body.get("failedUploads").asInt()).isEqualTo(1);
+        assertThat(body.get("results")).hasSize(1);
+        assertThat(body.get("results").get(0).get("outcome").asText()).isEqualTo("AUTHOR_NOT_FOUND");
+
+        BookUploadJobData job = uploadJobRepository.findAll().stream().findFirst().orElseThrow();
+        assertThat(job.getResultsMode()).isEqualTo(UploadResultsMode.FAILURES);
+        assertThat(job.getProcessedRows()).isEqualTo(2);
+
+        MvcResult none = mockMvc.perform(multipart("/api/books/upload").file(new MockMultipartFile(
+                        "file", "upload.ndjson", "application/x-ndjson", ndjson.getBytes()))
+                        .param("results", "none"))
+                .andExpect(status().isCreated()).andReturn();
+
+        // Answered from the first upload of the same payload
+        body = mapper.readTree(none.getResponse().getContentAsString());
+        assertThat(body.get("replayed").asBoolean()).isTrue();
+        assertThat(body.has("results")).isFalse();
+        assertThat(body.get("successfulUploads").asInt()).isEqualTo(1);
+        assertThat(body.get("failedUploads").asInt()).isEqualTo(1);
+
+        MvcResult streamed = mockMvc.perform(multipart("/api/books/upload").file(new MockMultipartFile(
+                        "file", "upload.ndjson", "application/x-ndjson", ndjson.getBytes()))
+                        .param("stream", "true"))
+                .andExpect(status().isCreated()).andReturn();
+
+        String[] lines = streamed.getResponse().getContentAsString().strip().split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(mapper.readTree(lines[0]).get("outcome").asText()).isEqualTo("TITLE_AUTHOR_EXISTS");
+        assertThat(mapper.readTree(lines[1]).get("outcome").asText()).isEqualTo("AUTHOR_NOT_FOUND");
+        assertThat(mapper.readTree(lines[2]).get("failedUploads").asInt()).isEqualTo(2);
+    }
+
+    @Test
+    public void upload_retries_shouldReuseCompletedJob_andResumeInterruptedOne() throws Exception {
+        BookAuthorData author = authorRepository.findAll().stream().findFirst().orElse(null);
+        assertThat(author).isNotNull();
+
+        String canonical = getCanonicalName(author, authorFullName);
+
+        String ndjson = """
+                {"title":"IDEM-1","author":"%s","genre":"A"}
+                {"title":"IDEM-2","author":"%s","genre":"B"}
+                """.formatted(canonical, canonical);
+
+        MockMultipartFile file = new MockMultipartFile("file", "upload.ndjson", "application/x-ndjson", ndjson.getBytes());
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            MvcResult res = mockMvc.perform(multipart("/api/books/upload").file(file))
+                    .andExpect(status().isCreated()).andReturn();
+
+            var uploaded = mapper.readTree(res.getResponse().getContentAsString());
+            var results = uploaded.get("results");
+            assertThat(results).hasSize(2);
+            assertThat(results.get(0).get("outcome").asText()).isEqualTo("SUCCESS");
+            assertThat(results.get(1).get("outcome").asText()).isEqualTo("SUCCESS");
+            assertThat(uploaded.path("replayed").asBoolean()).isEqualTo(attempt > 0);
+        }
+
+        assertThat(bookRepository.count()).isEqualTo(2);
+
+        // The same payload in another mode is a new upload, its rows already exist
+        MvcResult copied = mockMvc.perform(multipart("/api/books/upload").file(file).param("mode", "copy"))
+                .andExpect(status().isCreated()).andReturn();
+
+        var copiedBody = mapper.readTree(copied.getResponse().getContentAsString());
+        assertThat(copiedBody.has("replayed")).isFalse();
+        assertThat(copiedBody.get("failedUploads").asInt()).isEqualTo(2);
+        assertThat(bookRepository.count()).isEqualTo(2);
+
+        // An attempt that was interrupted after committing its first row
+        BookUploadJobData interrupted = new BookUploadJobData();
+        interrupted.setId(UUID.randomUUID());
+        interrupted.setIdempotencyKey("key:resume-1");
+        interrupted.setStatus(UploadJobStatus.FAILED);
+        interrupted.setMode(UploadMode.BATCH);
+        interrupted.setFormat(BookUploadFormat.NDJSON);
+        interrupted.setProcessedRows(1);
+        interrupted.setSuccessfulUploads(1);
+        uploadJobRepository.save(interrupted);
+
+        String resumed = """
+                {"title":"RESUME-1","author":"%s","genre":"A"}
+                {"title":"RESUME-2","author":"%s","genre":"B"}
+                """.formatted(canonical, canonical);
+
+        MvcResult res = mockMvc.perform(multipart("/api/books/upload")
+                        .file(new MockMultipartFile("file", "upload.ndjson", "application/x-ndjson", resumed.getBytes()))
+                        .header("Idempotency-Key", "resume-1"))
+                .andExpect(status().isCreated()).andReturn();
+
+        var body = mapper.readTree(res.getResponse().getContentAsString());
+        assertThat(body.get("successfulUploads").asInt()).isEqualTo(2);
+        assertThat(bookRepository.findAllByAuthorCanonicalNameAndTitle(canonical, "RESUME-1")).isEmpty();
+        assertThat(bookRepository.findAllByAuthorCanonicalNameAndTitle(canonical, "RESUME-2")).hasSize(1);
+
+        // A key belongs to a single upload
+        mockMvc.perform(multipart("/api/books/upload")
+                        .file(new MockMultipartFile("file", "upload.ndjson", "application/x-ndjson", resumed.getBytes()))
+                        .param("mode", "copy")
+                        .header("Idempotency-Key", "resume-1"))
+                .andExpect(status().isBadRequest());
+    }
+
     private <T> T parseResponse(MvcResult result, Class<T> c) {
         try {
             return mapper.readValue(result.getResponse().getContentAsString(), c);
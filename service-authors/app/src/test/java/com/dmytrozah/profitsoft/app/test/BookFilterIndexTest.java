@@ -0,0 +1,164 @@
+package com.dmytrozah.profitsoft.app.test;
+
+import com.dmytrozah.profitsoft.Task2App;
+import com.dmytrozah.profitsoft.domain.dto.book.query.BookDtoAttribute;
+import com.dmytrozah.profitsoft.domain.dto.book.query.BookQueryCursor;
+import com.dmytrozah.profitsoft.domain.dto.book.query.BookQueryDto;
+import com.dmytrozah.profitsoft.domain.dto.book.query.BookQueryDtoFilter;
+import com.dmytrozah.profitsoft.domain.dto.book.query.BookSortAttribute;
+import com.dmytrozah.profitsoft.domain.entity.BookData;
+import com.dmytrozah.profitsoft.domain.repository.BookRepository;
+import com.dmytrozah.profitsoft.domain.repository.spec.BookSpecifications;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN on the SQL Hibernate generates for the book filters and listing cursors, to make
+ * sure their predicates match the index expressions. Sequential scans are disabled for the EXPLAIN, as the
+ * planner rightly prefers them on the near-empty test tables.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        classes = {Task2App.class, BookFilterIndexTest.SqlRecorderConfig.class}
+)
+public class BookFilterIndexTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SqlRecorder sqlRecorder;
+
+    @Test
+    public void titleFilter_shouldUseTrigramIndex() {
+        String plan = this.explain(BookQueryDto.builder()
+                .filters(List.of(new BookQueryDtoFilter(BookDtoAttribute.TITLE, "Odyss")))
+                .build(), "%odyss%");
+
+        assertThat(plan).contains("idx_books_lower_title_trgm");
+    }
+
+    @Test
+    public void authorNameFilter_shouldUseLowerAuthorNameIndex() {
+        String plan = this.explain(BookQueryDto.builder()
+                .filters(List.of(new BookQueryDtoFilter(BookDtoAttribute.AUTHOR_CANONICAL_NAME, "Homer")))
+                .build(), "homer");
+
+        assertThat(plan).contains("idx_books_lower_author_canonical_name");
+
+        String prefixPlan = this.explain(BookQueryDto.builder()
+                .filters(List.of(new BookQueryDtoFilter(BookDtoAttribute.AUTHOR_CANONICAL_NAME, "Hom%")))
+                .build(), "hom%");
+
+        assertThat(prefixPlan).contains("idx_books_lower_author_canonical_name");
+    }
+
+    @Test
+    public void authorIdFilter_shouldUseAuthorIdIndex() {
+        String plan = this.explain(BookQueryDto.builder().authorId("42").build(), 42L);
+
+        assertThat(plan).contains("idx_books_author_id");
+    }
+
+    @Test
+    public void titleCursor_shouldSeekTitleIdIndex() {
+        String plan = this.explain(
+                BookSpecifications.after(new BookQueryCursor(BookSortAttribute.TITLE, 42L, "Odyssey")),
+                Sort.by("title", "id"), "Odyssey", 42L);
+
+        assertThat(plan).contains("Index Scan using idx_books_title_id").doesNotContain("BitmapOr", "Sort Key");
+    }
+
+    @Test
+    public void lastUpdateTimeCursor_shouldSeekLastUpdateTimeIdIndex() {
+        Instant last = Instant.parse("2024-01-01T00:00:00Z");
+        LocalDateTime local = LocalDateTime.ofInstant(last, ZoneId.systemDefault());
+
+        String plan = this.explain(
+                BookSpecifications.after(new BookQueryCursor(BookSortAttribute.LAST_UPDATE_TIME, 42L, last.toString())),
+                Sort.by("lastUpdateTime", "id"), local, 42L);
+
+        assertThat(plan).contains("idx_books_last_update_time_id").doesNotContain("BitmapOr", "Sort Key");
+    }
+
+    private String explain(BookQueryDto query, Object parameter) {
+        return this.explain(BookSpecifications.fromQuery(query), Sort.unsorted(), parameter);
+    }
+
+    /**
+     * Runs the query of the given specification, then EXPLAINs the recorded SQL with the given
+     * parameters
+     */
+    private String explain(Specification<BookData> spec, Sort sort, Object... parameters) {
+        sqlRecorder.clear();
+        bookRepository.findAll(spec, sort);
+
+        String sql = sqlRecorder.lastSelect();
+        assertThat(sql).isNotNull();
+
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+
+            return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters));
+        });
+    }
+
+    static class SqlRecorder implements StatementInspector {
+
+        private volatile String lastSelect;
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.stripLeading().toLowerCase().startsWith("select") && sql.contains("books")) {
+                lastSelect = sql;
+            }
+
+            return sql;
+        }
+
+        void clear() {
+            lastSelect = null;
+        }
+
+        String lastSelect() {
+            return lastSelect;
+        }
+    }
+
+    @TestConfiguration
+    static class SqlRecorderConfig {
+
+        @Bean
+        SqlRecorder sqlRecorder() {
+            return new SqlRecorder();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer sqlRecorderCustomizer(SqlRecorder sqlRecorder) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlRecorder);
+        }
+    }
+}
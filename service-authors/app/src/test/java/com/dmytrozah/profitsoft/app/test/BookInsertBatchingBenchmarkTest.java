@@ -0,0 +1,117 @@
+package com.dmytrozah.profitsoft.app.test;
+
+import com.dmytrozah.profitsoft.Task2App;
+import com.dmytrozah.profitsoft.domain.entity.BookAuthorData;
+import com.dmytrozah.profitsoft.domain.entity.BookData;
+import com.dmytrozah.profitsoft.domain.entity.embeds.AuthorName;
+import com.dmytrozah.profitsoft.domain.repository.BookAuthorRepository;
+import com.dmytrozah.profitsoft.domain.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares book insert throughput with one INSERT round trip per row (what
+ * {@code GenerationType.IDENTITY} forced) against the configured JDBC batching.
+ * Needs a real PostgreSQL, so it only runs with {@code RUN_BENCHMARKS=true}.
+ */
+@Slf4j
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        classes = Task2App.class
+)
+@EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+public class BookInsertBatchingBenchmarkTest {
+
+    private static final int ROWS = 20_000;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BookAuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Value("${jdbc.batch-size:100}")
+    private int batchSize;
+
+    private BookAuthorData author;
+
+    @BeforeEach
+    void createAuthor() {
+        author = new BookAuthorData();
+        author.setName(new AuthorName("Bench", "Mark"));
+        author.setCanonicalName("Bench Mark");
+
+        author = authorRepository.save(author);
+    }
+
+    @AfterEach
+    void cleanup() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void batchedInsertsOutperformRowByRowInserts() {
+        // warm-up, so that neither run pays for class loading or connection setup
+        insertBooks("warmup", 1_000, batchSize);
+
+        final double rowByRow = insertBooks("single", ROWS, 1);
+        final double batched = insertBooks("batched", ROWS, batchSize);
+
+        log.info("Book inserts: row-by-row {} rows/s, batched (size {}) {} rows/s",
+                Math.round(rowByRow), batchSize, Math.round(batched));
+
+        assertThat(bookRepository.count()).isEqualTo(1_000 + 2L * ROWS);
+        assertThat(batched).isGreaterThan(rowByRow);
+    }
+
+    /**
+     * @return the measured throughput in rows per second
+     */
+    private double insertBooks(String prefix, int rows, int jdbcBatchSize) {
+        final long start = System.nanoTime();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+
+            final BookAuthorData managedAuthor = entityManager.getReference(BookAuthorData.class, author.getId());
+
+            for (int i = 0; i < rows; i++) {
+                BookData book = new BookData();
+                book.setTitle(prefix + "-" + i);
+                book.setAuthor(managedAuthor);
+                book.setAuthorCanonicalName(author.getCanonicalName());
+                book.setGenres("Benchmark");
+                book.setPublication(LocalDate.of(2000, 1, 1));
+
+                entityManager.persist(book);
+
+                if ((i + 1) % 1_000 == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+
+        return rows / ((System.nanoTime() - start) / 1_000_000_000d);
+    }
+}
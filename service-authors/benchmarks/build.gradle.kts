@@ -0,0 +1,54 @@
+plugins {
+    java
+    id("io.spring.dependency-management")
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+group = "com.dmytrozah.profitsoft"
+version = "0.0.1-SNAPSHOT"
+description = "benchmarks"
+
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(21)
+    }
+    tasks.register("prepareKotlinBuildScriptModel") {}
+}
+
+repositories {
+    mavenCentral()
+}
+
+extra["springCloudVersion"] = "2023.0.3"
+
+dependencyManagement {
+    imports {
+        mavenBom("org.springframework.boot:spring-boot-dependencies:3.3.6")
+        // Versions of the app's runtime dependencies
+        mavenBom("org.springframework.cloud:spring-cloud-dependencies:${property("springCloudVersion")}")
+    }
+}
+
+dependencies {
+    jmhImplementation(project(":service-authors:core-api"))
+    jmhImplementation(project(":service-authors:app"))
+
+    jmhImplementation("org.springframework.boot:spring-boot-starter-data-jpa")
+    jmhImplementation("com.fasterxml.jackson.core:jackson-databind")
+}
+
+// ./gradlew :service-authors:benchmarks:jmh -PjmhIncludes=BookMapperBenchmark
+jmh {
+    jmhVersion = "1.37"
+    fork = 1
+    warmupIterations = 2
+    iterations = 3
+    jvmArgs = listOf("-Xms4g", "-Xmx4g")
+    // Allocation rate (gc.alloc.rate, gc.alloc.rate.norm) next to the ops/s score
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+
+    if (project.hasProperty("jmhIncludes")) {
+        includes = listOf(project.property("jmhIncludes") as String)
+    }
+}
@@ -0,0 +1,100 @@
+package com.dmytrozah.profitsoft.benchmarks;
+
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadDto;
+import com.dmytrozah.profitsoft.domain.entity.BookAuthorData;
+import com.dmytrozah.profitsoft.domain.entity.BookData;
+import com.dmytrozah.profitsoft.domain.entity.embeds.AuthorLivingAddress;
+import com.dmytrozah.profitsoft.domain.entity.embeds.AuthorName;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic catalogs and upload files for the benchmarks. Uploads reference known authors,
+ * with a share of rows that duplicate stored books or name unknown authors, like real imports.
+ */
+public final class BookDatasets {
+
+    public static final int AUTHORS = 1_000;
+
+    // Every twentieth row repeats a stored book, every fiftieth names an unknown author
+    private static final int EXISTING_EVERY = 20;
+
+    private static final int UNKNOWN_AUTHOR_EVERY = 50;
+
+    private static final String[] GENRES = {"Drama", "Adventure", "Poetry", "History", "SciFi", "Drama,Adventure"};
+
+    private BookDatasets() {
+    }
+
+    public static List<BookAuthorData> authors() {
+        final List<BookAuthorData> authors = new ArrayList<>(AUTHORS);
+
+        for (int i = 0; i < AUTHORS; i++) {
+            final BookAuthorData author = new BookAuthorData();
+            author.setId((long) i + 1);
+            author.setName(new AuthorName("First" + i, "Last" + i));
+            author.setCanonicalName("First" + i + " Last" + i);
+            author.setEmail("author" + i + "@example.com");
+            author.setPhoneNumber("555-" + i);
+            author.setPostalAddress(new AuthorLivingAddress("7613" + i % 10, i % 200, "Main St", "Karlsruhe", "Germany"));
+
+            authors.add(author);
+        }
+
+        return authors;
+    }
+
+    /**
+     * The stored books that the upload of the same size partly repeats
+     */
+    public static List<BookData> books(final List<BookAuthorData> authors, final int rows) {
+        final List<BookData> books = new ArrayList<>(rows / EXISTING_EVERY);
+
+        for (int row = 0; row < rows; row += EXISTING_EVERY) {
+            final BookAuthorData author = authors.get(row % authors.size());
+            final BookData book = new BookData();
+
+            book.setId(row + 1);
+            book.setAuthor(author);
+            book.setTitle(title(row));
+            book.setAuthorCanonicalName(author.getCanonicalName());
+            book.setGenres(GENRES[row % GENRES.length]);
+            book.setPublication(LocalDate.of(1900 + row % 120, 1 + row % 12, 1 + row % 28));
+
+            books.add(book);
+        }
+
+        return books;
+    }
+
+    public static List<BookUploadDto> uploads(final List<BookAuthorData> authors, final int rows) {
+        final Random random = new Random(rows);
+        final List<BookUploadDto> uploads = new ArrayList<>(rows);
+
+        for (int row = 0; row < rows; row++) {
+            final BookAuthorData author = authors.get(row % authors.size());
+            final BookUploadDto upload = new BookUploadDto();
+
+            upload.setTitle(title(row));
+            upload.setAuthorName(row % UNKNOWN_AUTHOR_EVERY == 1 ? "Unknown Author " + row : author.getCanonicalName());
+            upload.setGenres(GENRES[random.nextInt(GENRES.length)]);
+
+            switch (random.nextInt(3)) {
+                case 0 -> upload.setPublication(LocalDate.of(1900 + random.nextInt(120), 1 + random.nextInt(12), 1));
+                case 1 -> upload.setPublicationYear(1900 + random.nextInt(120));
+                default -> upload.setAuthorId(author.getId());
+            }
+
+            uploads.add(upload);
+        }
+
+        return uploads;
+    }
+
+    private static String title(final int row) {
+        return "Benchmark Book " + row;
+    }
+}
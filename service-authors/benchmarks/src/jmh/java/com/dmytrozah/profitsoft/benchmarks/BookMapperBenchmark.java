@@ -0,0 +1,108 @@
+package com.dmytrozah.profitsoft.benchmarks;
+
+import com.dmytrozah.profitsoft.domain.BookUploadResult;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadDto;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadResultOutcome;
+import com.dmytrozah.profitsoft.domain.entity.BookAuthorData;
+import com.dmytrozah.profitsoft.domain.entity.BookData;
+import com.dmytrozah.profitsoft.domain.entity.mapper.AuthorMapper;
+import com.dmytrozah.profitsoft.domain.entity.mapper.BookMapper;
+import com.dmytrozah.profitsoft.domain.entity.mapper.BookUploadMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The generated MapStruct mappers over a whole dataset per operation. The mappers are wired
+ * by a plain Spring context, as the application does through {@code MappingConfig}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BookMapperBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private AnnotationConfigApplicationContext context;
+
+    private BookMapper bookMapper;
+
+    private AuthorMapper authorMapper;
+
+    private BookUploadMapper uploadMapper;
+
+    private List<BookAuthorData> authors;
+
+    private List<BookUploadDto> uploads;
+
+    private List<BookData> books;
+
+    private List<BookUploadResult> results;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext("com.dmytrozah.profitsoft.domain.entity.mapper");
+
+        bookMapper = context.getBean(BookMapper.class);
+        authorMapper = context.getBean(AuthorMapper.class);
+        uploadMapper = context.getBean(BookUploadMapper.class);
+
+        authors = BookDatasets.authors();
+        uploads = BookDatasets.uploads(authors, rows);
+
+        books = uploads.stream().map(upload -> {
+            final BookData book = bookMapper.toEntity(upload);
+            book.setAuthor(authors.get(Math.floorMod(upload.getTitle().hashCode(), authors.size())));
+
+            return book;
+        }).toList();
+
+        results = books.stream()
+                .map(book -> new BookUploadResult(book, UploadResultOutcome.SUCCESS))
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void bookToEntity(final Blackhole blackhole) {
+        for (BookUploadDto upload : uploads) {
+            blackhole.consume(bookMapper.toEntity(upload));
+        }
+    }
+
+    @Benchmark
+    public void bookToInfoDto(final Blackhole blackhole) {
+        for (BookData book : books) {
+            blackhole.consume(bookMapper.toInfoDto(book));
+        }
+    }
+
+    @Benchmark
+    public void bookToDetailsDto(final Blackhole blackhole) {
+        for (BookData book : books) {
+            blackhole.consume(bookMapper.toDetailsDto(book));
+        }
+    }
+
+    @Benchmark
+    public void authorToInfoDto(final Blackhole blackhole) {
+        for (BookData book : books) {
+            blackhole.consume(authorMapper.toInfoDto(book.getAuthor()));
+        }
+    }
+
+    @Benchmark
+    public void uploadResultToDto(final Blackhole blackhole) {
+        for (BookUploadResult result : results) {
+            blackhole.consume(uploadMapper.toDto(result));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.dmytrozah.profitsoft.benchmarks;
+
+import com.dmytrozah.profitsoft.domain.entity.BookAuthorData;
+import com.dmytrozah.profitsoft.domain.entity.BookData;
+import com.dmytrozah.profitsoft.domain.repository.BookAuthorRepository;
+import com.dmytrozah.profitsoft.domain.repository.BookRepository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+/**
+ * Map-backed stand-ins for the repositories on the upload path, so that the benchmarks measure
+ * CPU and allocations of our code rather than database round trips. Only the queries issued
+ * during conversion are implemented; anything else fails loudly.
+ */
+public final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    public static BookAuthorRepository authors(final List<BookAuthorData> authors) {
+        final Map<String, List<BookAuthorData>> byLowerName = new HashMap<>();
+        final Map<Long, BookAuthorData> byId = new HashMap<>();
+
+        for (BookAuthorData author : authors) {
+            byLowerName.computeIfAbsent(author.getCanonicalName().toLowerCase(Locale.ROOT), name -> new ArrayList<>())
+                    .add(author);
+            byId.put(author.getId(), author);
+        }
+
+        return proxy(BookAuthorRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findAllByLowerCanonicalNameIn" -> ((Collection<?>) args[0]).stream()
+                    .flatMap(name -> byLowerName.getOrDefault(name, List.of()).stream())
+                    .toList();
+            case "findAllById" -> {
+                final List<BookAuthorData> found = new ArrayList<>();
+
+                for (Object id : (Iterable<?>) args[0]) {
+                    final BookAuthorData author = byId.get(id);
+
+                    if (author != null) {
+                        found.add(author);
+                    }
+                }
+
+                yield found;
+            }
+            default -> unsupported(proxy, method.getName(), args);
+        });
+    }
+
+    public static BookRepository books(final List<BookData> books) {
+        final Map<String, List<BookData>> byTitle = new HashMap<>();
+
+        for (BookData book : books) {
+            byTitle.computeIfAbsent(book.getTitle(), title -> new ArrayList<>()).add(book);
+        }
+
+        return proxy(BookRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findAllByTitleInAndAuthorCanonicalNameIn" -> {
+                final Collection<?> names = (Collection<?>) args[1];
+
+                yield ((Collection<?>) args[0]).stream()
+                        .flatMap(title -> byTitle.getOrDefault(title, List.of()).stream())
+                        .filter(book -> names.contains(book.getAuthorCanonicalName()))
+                        .toList();
+            }
+            default -> unsupported(proxy, method.getName(), args);
+        });
+    }
+
+    private static Object unsupported(final Object proxy, final String method, final Object[] args) {
+        return switch (method) {
+            case "toString" -> "InMemoryRepository";
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> throw new UnsupportedOperationException(method + " is not available in benchmarks");
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(final Class<T> repository, final InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository}, handler);
+    }
+}
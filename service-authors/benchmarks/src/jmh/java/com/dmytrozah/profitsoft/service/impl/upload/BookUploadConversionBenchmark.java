@@ -0,0 +1,63 @@
+package com.dmytrozah.profitsoft.service.impl.upload;
+
+import com.dmytrozah.profitsoft.benchmarks.BookDatasets;
+import com.dmytrozah.profitsoft.benchmarks.InMemoryRepositories;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadDto;
+import com.dmytrozah.profitsoft.domain.entity.BookAuthorData;
+import com.dmytrozah.profitsoft.service.impl.BookExistenceIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chunk-wise resolution and conversion of uploaded rows, as done by the convert stage of
+ * {@link BookUploadPipeline}. One operation converts the whole file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BookUploadConversionBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"1000"})
+    private int chunkSize;
+
+    private BookUploadConverter converter;
+
+    private List<List<BookUploadDto>> chunks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final List<BookAuthorData> authors = BookDatasets.authors();
+
+        // Never built, so every pair goes through the (in-memory) duplicate lookup
+        final BookExistenceIndex existenceIndex = new BookExistenceIndex(null, new TransactionTemplate());
+
+        converter = new BookUploadConverter(new BookUploadChunkResolver(
+                InMemoryRepositories.authors(authors),
+                InMemoryRepositories.books(BookDatasets.books(authors, rows)),
+                existenceIndex
+        ));
+
+        final List<BookUploadDto> uploads = BookDatasets.uploads(authors, rows);
+
+        chunks = new ArrayList<>();
+
+        for (int from = 0; from < uploads.size(); from += chunkSize) {
+            chunks.add(uploads.subList(from, Math.min(from + chunkSize, uploads.size())));
+        }
+    }
+
+    @Benchmark
+    public void convert(final Blackhole blackhole) {
+        for (List<BookUploadDto> chunk : chunks) {
+            blackhole.consume(converter.convert(chunk));
+        }
+    }
+}
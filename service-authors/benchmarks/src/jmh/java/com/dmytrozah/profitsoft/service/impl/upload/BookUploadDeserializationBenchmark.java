@@ -0,0 +1,96 @@
+package com.dmytrozah.profitsoft.service.impl.upload;
+
+import com.dmytrozah.profitsoft.benchmarks.BookDatasets;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadDto;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadFormat;
+import com.fasterxml.jackson.databind.MappingIterator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson deserialization of {@link BookUploadDto} through {@link BookUploadReader}, the parse
+ * stage of an upload. One operation reads the whole in-memory file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BookUploadDeserializationBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"JSON", "NDJSON", "CSV"})
+    private BookUploadFormat format;
+
+    private final BookUploadReader reader = new BookUploadReader();
+
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final List<BookUploadDto> uploads = BookDatasets.uploads(BookDatasets.authors(), rows);
+        final StringBuilder file = new StringBuilder(rows * 128);
+
+        switch (format) {
+            case JSON -> {
+                file.append('[');
+                for (int i = 0; i < uploads.size(); i++) {
+                    appendJson(file.append(i == 0 ? "" : ","), uploads.get(i));
+                }
+                file.append(']');
+            }
+            case NDJSON -> uploads.forEach(upload -> appendJson(file, upload).append('\n'));
+            case CSV -> {
+                file.append("title,author,author_id,genre,publication,year_published\n");
+                uploads.forEach(upload -> appendCsv(file, upload));
+            }
+        }
+
+        payload = file.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void read(final Blackhole blackhole) throws IOException {
+        try (MappingIterator<BookUploadDto> uploads = reader.read(new ByteArrayInputStream(payload), format)) {
+            while (uploads.hasNextValue()) {
+                blackhole.consume(uploads.nextValue());
+            }
+        }
+    }
+
+    private static StringBuilder appendJson(final StringBuilder file, final BookUploadDto upload) {
+        file.append("{\"title\":\"").append(upload.getTitle())
+                .append("\",\"author\":\"").append(upload.getAuthorName())
+                .append("\",\"genre\":\"").append(upload.getGenres()).append('"');
+
+        if (upload.getAuthorId() != -1) {
+            file.append(",\"author_id\":").append(upload.getAuthorId());
+        }
+
+        if (upload.getPublication() != null) {
+            file.append(",\"publication\":\"").append(upload.getPublication()).append('"');
+        }
+
+        if (upload.getPublicationYear() != -1) {
+            file.append(",\"year_published\":").append(upload.getPublicationYear());
+        }
+
+        return file.append('}');
+    }
+
+    private static void appendCsv(final StringBuilder file, final BookUploadDto upload) {
+        file.append(upload.getTitle()).append(',')
+                .append(upload.getAuthorName()).append(',')
+                .append(upload.getAuthorId() != -1 ? String.valueOf(upload.getAuthorId()) : "").append(',')
+                .append('"').append(upload.getGenres()).append("\",")
+                .append(upload.getPublication() != null ? upload.getPublication().toString() : "").append(',')
+                .append(upload.getPublicationYear() != -1 ? String.valueOf(upload.getPublicationYear()) : "")
+                .append('\n');
+    }
+}
@@ -0,0 +1,7 @@
+package com.dmytrozah.profitsoft.domain;
+
+/**
+ * Inclusive id bounds of a partition of the books in a report
+ */
+public record BookIdRange(long minId, long maxId) {
+}
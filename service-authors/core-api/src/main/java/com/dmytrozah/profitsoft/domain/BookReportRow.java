@@ -0,0 +1,15 @@
+package com.dmytrozah.profitsoft.domain;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Columns of a single report line, read without loading the book or its author. Columns that
+ * were not selected for the report are {@code null}.
+ */
+public record BookReportRow(String title,
+                            String authorCanonicalName,
+                            String genres,
+                            LocalDate publication,
+                            Instant lastUpdateTime) {
+}
@@ -0,0 +1,9 @@
+package com.dmytrozah.profitsoft.domain;
+
+import java.time.Instant;
+
+/**
+ * State of the rows covered by a report; any insert, update or delete in scope changes it
+ */
+public record BookReportWatermark(Instant lastUpdateTime, Long rows) {
+}
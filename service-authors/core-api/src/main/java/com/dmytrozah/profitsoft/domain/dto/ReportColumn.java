@@ -0,0 +1,27 @@
+package com.dmytrozah.profitsoft.domain.dto;
+
+/**
+ * Column of a book report, in the order requested
+ */
+public enum ReportColumn {
+
+    TITLE("Title"),
+
+    AUTHOR_CANONICAL_NAME("Author"),
+
+    GENRES("Genres"),
+
+    PUBLICATION("Publication"),
+
+    LAST_UPDATE_TIME("Last update (UTC)");
+
+    private final String header;
+
+    ReportColumn(String header) {
+        this.header = header;
+    }
+
+    public String getHeader() {
+        return header;
+    }
+}
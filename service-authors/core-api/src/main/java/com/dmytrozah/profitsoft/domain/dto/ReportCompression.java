@@ -0,0 +1,88 @@
+package com.dmytrozah.profitsoft.domain.dto;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Content coding applied to a report while it is written
+ */
+public enum ReportCompression {
+
+    IDENTITY("identity", ""),
+
+    GZIP("gzip", ".gz"),
+
+    ZSTD("zstd", ".zst");
+
+    private final String value;
+
+    private final String fileExtension;
+
+    ReportCompression(String value, String fileExtension) {
+        this.value = value;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public static ReportCompression fromValue(String value) {
+        return Arrays.stream(values())
+                .filter(compression -> compression.value.equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown report compression " + value));
+    }
+
+    /**
+     * Picks the supported coding with the highest quality from an {@code Accept-Encoding} header,
+     * preferring zstd over gzip on equal weights, and falls back to identity
+     */
+    public static ReportCompression negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return IDENTITY;
+        }
+
+        ReportCompression best = IDENTITY;
+        double bestQuality = 0;
+
+        for (String coding : acceptEncoding.split(",")) {
+            final String[] parts = coding.split(";");
+            final String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            final double quality = quality(parts);
+
+            for (ReportCompression candidate : new ReportCompression[]{ZSTD, GZIP}) {
+                final boolean matches = name.equals(candidate.value) || name.equals("*")
+                        || (candidate == GZIP && name.equals("x-gzip"));
+
+                if (matches && (quality > bestQuality
+                        || (quality == bestQuality && quality > 0 && candidate.ordinal() > best.ordinal()))) {
+                    best = candidate;
+                    bestQuality = quality;
+                }
+            }
+        }
+
+        return best;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            final String parameter = parts[i].trim();
+
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+
+        return 1;
+    }
+}
@@ -0,0 +1,55 @@
+package com.dmytrozah.profitsoft.domain.dto;
+
+import java.util.Arrays;
+
+/**
+ * File format of a report
+ */
+public enum ReportFormat {
+
+    CSV("csv", ".csv", false),
+
+    /**
+     * Spreadsheet with typed date columns
+     */
+    XLSX("xlsx", ".xlsx", true),
+
+    /**
+     * Columnar file with typed dates, timestamps and genre lists
+     */
+    PARQUET("parquet", ".parquet", true);
+
+    private final String value;
+
+    private final String fileExtension;
+
+    private final boolean compressed;
+
+    ReportFormat(String value, String fileExtension, boolean compressed) {
+        this.value = value;
+        this.fileExtension = fileExtension;
+        this.compressed = compressed;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Whether the format compresses its content itself, so that another compression would not pay off
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    public static ReportFormat fromValue(String value) {
+        return Arrays.stream(values())
+                .filter(format -> format.value.equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown report format " + value));
+    }
+}
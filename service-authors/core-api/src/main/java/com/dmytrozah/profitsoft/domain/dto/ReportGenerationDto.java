@@ -1,16 +1,40 @@
 package com.dmytrozah.profitsoft.domain.dto;
 
+import com.dmytrozah.profitsoft.domain.dto.book.query.BookQueryDtoFilter;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
 
+import java.util.List;
+
+/**
+ * Books and columns of a report. Filters are the ones of
+ * {@link com.dmytrozah.profitsoft.domain.dto.book.query.BookQueryDto}; without columns the
+ * report format decides which ones are written.
+ */
 @Getter
+@Setter
 @AllArgsConstructor
+@NoArgsConstructor
 @Builder
 public class ReportGenerationDto {
 
     @JsonProperty("author_id")
-    private long authorId;
+    private Long authorId;
+
+    @Builder.Default
+    @JsonProperty("filters")
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    private List<BookQueryDtoFilter> filters = List.of();
+
+    @Builder.Default
+    @JsonProperty("columns")
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    private List<ReportColumn> columns = List.of();
 
 }
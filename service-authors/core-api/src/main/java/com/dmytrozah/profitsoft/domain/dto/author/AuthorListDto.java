@@ -19,7 +19,13 @@ public class AuthorListDto {
     @JsonProperty("list")
     private List<AuthorInfoDto> list;
 
+    /**
+     * {@code null} when the listing was not counted and no estimate is available
+     */
     @JsonProperty("total_pages")
-    private int totalPages;
+    private Integer totalPages;
+
+    @JsonProperty("has_next")
+    private boolean hasNext;
 
 }
@@ -20,4 +20,14 @@ public class AuthorQueryDto {
     @JsonProperty(defaultValue = "50")
     private Integer size = 50;
 
+    // false skips the count query; the response then only tells whether there is a next page
+    @Builder.Default
+    @JsonProperty("with_total")
+    private Boolean withTotal = true;
+
+    // With with_total=false, total_pages is taken from the row estimate of the authors table
+    @Builder.Default
+    @JsonProperty("approximate_total")
+    private Boolean approximateTotal = false;
+
 }
@@ -19,7 +19,19 @@ public class BookListDto {
     @JsonProperty("list")
     private List<BookInfoDto> infos;
 
+    /**
+     * {@code null} when the listing was not counted and no estimate is available
+     */
     @JsonProperty("total_pages")
-    private int totalPages;
+    private Integer totalPages;
+
+    @JsonProperty("has_next")
+    private boolean hasNext;
+
+    /**
+     * Cursor of the following page, {@code null} on the last one
+     */
+    @JsonProperty("next_cursor")
+    private String nextCursor;
 
 }
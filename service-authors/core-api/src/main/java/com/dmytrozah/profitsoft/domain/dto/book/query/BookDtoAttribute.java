@@ -4,6 +4,27 @@ public enum BookDtoAttribute {
 
     AUTHOR_CANONICAL_NAME,
 
-    TITLE
+    TITLE,
+
+    /**
+     * One of the comma-separated genres of the book
+     */
+    GENRE,
+
+    /**
+     * Earliest publication date, inclusive, as {@code yyyy-MM-dd}
+     */
+    PUBLISHED_FROM,
+
+    /**
+     * Latest publication date, inclusive, as {@code yyyy-MM-dd}
+     */
+    PUBLISHED_TO,
+
+    /**
+     * Full-text search over title, genres and author canonical name. Listings are ranked by
+     * relevance unless another sort is requested.
+     */
+    SEARCH
 
 }
@@ -0,0 +1,38 @@
+package com.dmytrozah.profitsoft.domain.dto.book.query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last book of a page: its sort value and id. Handed to clients as an opaque
+ * url-safe string, the next page continues strictly after it.
+ *
+ * @param value sort value as a string, {@code null} when the book has none
+ */
+public record BookQueryCursor(BookSortAttribute sort, long id, String value) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        final String raw = sort.name() + SEPARATOR + id + SEPARATOR + (value == null ? "-" : "=" + value);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookQueryCursor decode(String cursor) {
+        try {
+            final String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final String[] parts = raw.split("\\|", 3);
+
+            if (parts.length != 3 || !(parts[2].equals("-") || parts[2].startsWith("="))) {
+                throw new IllegalArgumentException("Invalid cursor " + cursor);
+            }
+
+            return new BookQueryCursor(BookSortAttribute.valueOf(parts[0]), Long.parseLong(parts[1]),
+                    parts[2].equals("-") ? null : parts[2].substring(1));
+        } catch (IllegalArgumentException e) {
+            // Also covers malformed base64, unknown sort attributes and ids
+            throw new IllegalArgumentException("Invalid cursor " + cursor, e);
+        }
+    }
+}
@@ -35,4 +35,30 @@ public class BookQueryDto {
     @JsonProperty(defaultValue = "50")
     private Integer size = 50;
 
+    @Builder.Default
+    @JsonProperty("sort")
+    private BookSortAttribute sort = BookSortAttribute.ID;
+
+    /**
+     * {@code next_cursor} of the previous page; when set, the page is read after it instead of by offset
+     */
+    @JsonProperty("cursor")
+    private String cursor;
+
+    /**
+     * Whether to count the matching rows for {@code total_pages}; without the count only
+     * {@code has_next} is known
+     */
+    @Builder.Default
+    @JsonProperty("with_total")
+    private Boolean withTotal = true;
+
+    /**
+     * Without the count, estimate {@code total_pages} from the planner statistics of the table.
+     * Only unfiltered listings have an estimate.
+     */
+    @Builder.Default
+    @JsonProperty("approximate_total")
+    private Boolean approximateTotal = false;
+
 }
@@ -0,0 +1,28 @@
+package com.dmytrozah.profitsoft.domain.dto.book.query;
+
+/**
+ * Order of a book listing; ties are always broken by the id
+ */
+public enum BookSortAttribute {
+
+    ID("id"),
+
+    TITLE("title"),
+
+    PUBLICATION("publication"),
+
+    LAST_UPDATE_TIME("lastUpdateTime");
+
+    private final String attribute;
+
+    BookSortAttribute(String attribute) {
+        this.attribute = attribute;
+    }
+
+    /**
+     * Name of the sorted {@link com.dmytrozah.profitsoft.domain.entity.BookData} attribute
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+}
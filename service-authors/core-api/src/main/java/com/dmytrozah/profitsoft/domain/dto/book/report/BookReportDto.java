@@ -0,0 +1,34 @@
+package com.dmytrozah.profitsoft.domain.dto.book.report;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * State of an asynchronously generated report; completed reports are downloaded from
+ * {@code /api/books/_report/{report_id}/content}
+ */
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookReportDto {
+
+    @JsonProperty("report_id")
+    private String id;
+
+    @JsonProperty("status")
+    private ReportStatus status;
+
+    @JsonProperty("size")
+    private Long size;
+
+    @JsonProperty("error")
+    private String error;
+
+}
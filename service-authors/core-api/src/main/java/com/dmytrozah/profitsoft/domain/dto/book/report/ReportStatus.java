@@ -0,0 +1,11 @@
+package com.dmytrozah.profitsoft.domain.dto.book.report;
+
+public enum ReportStatus {
+
+    RUNNING,
+
+    COMPLETED,
+
+    FAILED
+
+}
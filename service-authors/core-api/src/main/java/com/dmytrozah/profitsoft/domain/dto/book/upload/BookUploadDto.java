@@ -1,6 +1,8 @@
 package com.dmytrozah.profitsoft.domain.dto.book.upload;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -13,7 +15,9 @@ public class BookUploadDto {
     @JsonProperty("title")
     private String title;
 
+    // Empty CSV cells arrive as nulls and keep the -1 "not set" default
     @JsonProperty("author_id")
+    @JsonSetter(nulls = Nulls.SKIP)
     private long authorId = -1;
 
     @JsonProperty("author")
@@ -26,6 +30,7 @@ public class BookUploadDto {
     private LocalDate publication;
 
     @JsonProperty("year_published")
+    @JsonSetter(nulls = Nulls.SKIP)
     private int publicationYear = -1;
 
 }
@@ -0,0 +1,58 @@
+package com.dmytrozah.profitsoft.domain.dto.book.upload;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Supported layouts of an uploaded book file, negotiated from the part's content type
+ * and, failing that, from the file extension
+ */
+public enum BookUploadFormat {
+
+    /**
+     * A JSON array of {@link BookUploadDto}
+     */
+    JSON("application/json", ".json"),
+
+    /**
+     * One {@link BookUploadDto} JSON object per line
+     */
+    NDJSON("application/x-ndjson", ".ndjson", ".jsonl"),
+
+    /**
+     * Comma separated values with a header row naming the {@link BookUploadDto} properties
+     */
+    CSV("text/csv", ".csv");
+
+    private final String contentType;
+
+    private final String[] extensions;
+
+    BookUploadFormat(String contentType, String... extensions) {
+        this.contentType = contentType;
+        this.extensions = extensions;
+    }
+
+    public static BookUploadFormat of(String contentType, String filename) {
+        if (contentType != null) {
+            final String mediaType = contentType.split(";")[0].trim().toLowerCase(Locale.ROOT);
+
+            for (BookUploadFormat format : values()) {
+                if (format.contentType.equals(mediaType)) {
+                    return format;
+                }
+            }
+        }
+
+        if (filename != null) {
+            final String name = filename.toLowerCase(Locale.ROOT);
+
+            return Arrays.stream(values())
+                    .filter(format -> Arrays.stream(format.extensions).anyMatch(name::endsWith))
+                    .findFirst()
+                    .orElse(JSON);
+        }
+
+        return JSON;
+    }
+}
@@ -0,0 +1,55 @@
+package com.dmytrozah.profitsoft.domain.dto.book.upload;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Progress of an asynchronous upload job together with one page of its per-row results
+ */
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookUploadJobDto {
+
+    @JsonProperty("job_id")
+    private UUID id;
+
+    @JsonProperty("status")
+    private UploadJobStatus status;
+
+    @JsonProperty("processed_rows")
+    private long processedRows;
+
+    @JsonProperty("successful_uploads")
+    private long successfulUploads;
+
+    @JsonProperty("failed_uploads")
+    private long failedUploads;
+
+    @JsonProperty("error")
+    private String error;
+
+    @JsonProperty("created_at")
+    private Instant createdAt;
+
+    @JsonProperty("updated_at")
+    private Instant updatedAt;
+
+    @JsonProperty("results")
+    private List<BookUploadResultDto> results;
+
+    @JsonProperty("total_pages")
+    private int totalPages;
+
+}
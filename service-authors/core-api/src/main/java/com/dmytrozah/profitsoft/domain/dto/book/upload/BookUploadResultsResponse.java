@@ -1,21 +1,33 @@
 package com.dmytrozah.profitsoft.domain.dto.book.upload;
 
 import com.dmytrozah.profitsoft.domain.dto.RestResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 
-import java.util.List;
-
 @Getter
 public class BookUploadResultsResponse extends RestResponse {
-    private final List<BookUploadResultDto> results;
+    // Left out when the upload only reports its counts
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Iterable<BookUploadResultDto> results;
 
     private final int successfulUploads;
 
     private final int failedUploads;
 
-    public BookUploadResultsResponse(List<BookUploadResultDto> results,
+    // Answered from an earlier upload of the same payload, nothing was imported by this request
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private final boolean replayed;
+
+    public BookUploadResultsResponse(Iterable<BookUploadResultDto> results,
                                      int successfulUploads,
                                      int failedUploads) {
+        this(results, successfulUploads, failedUploads, false);
+    }
+
+    public BookUploadResultsResponse(Iterable<BookUploadResultDto> results,
+                                     int successfulUploads,
+                                     int failedUploads,
+                                     boolean replayed) {
         super(successfulUploads > 0 ?
                 " %d books were successfully uploaded (%d failures)".formatted(successfulUploads, failedUploads)
                 : "No books could be uploaded."
@@ -24,5 +36,6 @@ public class BookUploadResultsResponse extends RestResponse {
         this.results = results;
         this.successfulUploads = successfulUploads;
         this.failedUploads = failedUploads;
+        this.replayed = replayed;
     }
 }
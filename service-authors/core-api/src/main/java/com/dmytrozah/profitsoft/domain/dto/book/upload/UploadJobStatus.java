@@ -0,0 +1,13 @@
+package com.dmytrozah.profitsoft.domain.dto.book.upload;
+
+public enum UploadJobStatus {
+
+    QUEUED,
+
+    RUNNING,
+
+    COMPLETED,
+
+    FAILED
+
+}
@@ -0,0 +1,32 @@
+package com.dmytrozah.profitsoft.domain.dto.book.upload;
+
+import java.util.Arrays;
+
+/**
+ * How the rows of an uploaded file are written to the database
+ */
+public enum UploadMode {
+
+    /**
+     * Chunked JPA {@code saveAll} with JDBC batching
+     */
+    BATCH("batch"),
+
+    /**
+     * PostgreSQL {@code COPY} into a staging table, merged with a single set-based insert
+     */
+    COPY("copy");
+
+    private final String value;
+
+    UploadMode(String value) {
+        this.value = value;
+    }
+
+    public static UploadMode fromValue(String value) {
+        return Arrays.stream(values())
+                .filter(mode -> mode.value.equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown upload mode " + value));
+    }
+}
@@ -6,7 +6,9 @@ public enum UploadResultOutcome {
 
     AUTHOR_NOT_FOUND("Requested author doesn't exist"),
 
-    TITLE_AUTHOR_EXISTS("Book with the requested title and author already exists");
+    TITLE_AUTHOR_EXISTS("Book with the requested title and author already exists"),
+
+    SAVE_FAILED("Book couldn't be saved");
 
     private String message;
 
@@ -0,0 +1,45 @@
+package com.dmytrozah.profitsoft.domain.dto.book.upload;
+
+import java.util.Arrays;
+
+/**
+ * Which per-row results an upload reports next to its counts
+ */
+public enum UploadResultsMode {
+
+    /**
+     * A result for every row
+     */
+    ALL("all"),
+
+    /**
+     * Only the rows that were not uploaded
+     */
+    FAILURES("failures"),
+
+    /**
+     * Only the counts
+     */
+    NONE("none");
+
+    private final String value;
+
+    UploadResultsMode(String value) {
+        this.value = value;
+    }
+
+    public boolean includes(UploadResultOutcome outcome) {
+        return switch (this) {
+            case ALL -> true;
+            case FAILURES -> outcome != UploadResultOutcome.SUCCESS;
+            case NONE -> false;
+        };
+    }
+
+    public static UploadResultsMode fromValue(String value) {
+        return Arrays.stream(values())
+                .filter(mode -> mode.value.equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown results mode " + value));
+    }
+}
@@ -19,7 +19,8 @@ import java.util.List;
 public class BookAuthorData {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_author_data_seq")
+    @SequenceGenerator(name = "book_author_data_seq", sequenceName = "book_author_data_seq", allocationSize = 50)
     private Long id;
 
     private String email;
@@ -0,0 +1,58 @@
+package com.dmytrozah.profitsoft.domain.entity;
+
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadFormat;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadJobStatus;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadMode;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadResultsMode;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "book_upload_jobs")
+@Getter @Setter
+@RequiredArgsConstructor
+public class BookUploadJobData {
+
+    @Id
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    private UploadJobStatus status;
+
+    @Enumerated(EnumType.STRING)
+    private UploadMode mode;
+
+    @Enumerated(EnumType.STRING)
+    private BookUploadFormat format;
+
+    // Results stored in book_upload_job_results, rows left out only count towards the totals
+    @Enumerated(EnumType.STRING)
+    private UploadResultsMode resultsMode = UploadResultsMode.ALL;
+
+    // Spooled copy of the uploaded file, kept until the job finishes
+    private String filePath;
+
+    // Client supplied Idempotency-Key or SHA-256 of the payload, retries of the same upload share it
+    private String idempotencyKey;
+
+    private long processedRows;
+
+    private long successfulUploads;
+
+    private long failedUploads;
+
+    private String error;
+
+    @CreationTimestamp
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+}
@@ -0,0 +1,40 @@
+package com.dmytrozah.profitsoft.domain.entity;
+
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadResultOutcome;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * Outcome of a single uploaded row, stored for {@link BookUploadJobData} polling
+ */
+@Entity
+@Table(name = "book_upload_job_results")
+@Getter @Setter
+@RequiredArgsConstructor
+public class BookUploadJobResultData {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_upload_job_results_seq")
+    @SequenceGenerator(name = "book_upload_job_results_seq", sequenceName = "book_upload_job_results_seq",
+            allocationSize = 50)
+    private long id;
+
+    private UUID jobId;
+
+    private long rowNum;
+
+    private long bookId;
+
+    private String title;
+
+    private String authorCanonicalName;
+
+    private long authorId;
+
+    @Enumerated(EnumType.STRING)
+    private UploadResultOutcome outcome;
+}
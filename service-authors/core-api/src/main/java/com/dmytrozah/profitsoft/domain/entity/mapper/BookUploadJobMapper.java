@@ -0,0 +1,39 @@
+package com.dmytrozah.profitsoft.domain.entity.mapper;
+
+import com.dmytrozah.profitsoft.domain.dto.book.BookInfoDto;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadJobDto;
+import com.dmytrozah.profitsoft.domain.dto.book.upload.BookUploadResultDto;
+import com.dmytrozah.profitsoft.domain.entity.BookUploadJobData;
+import com.dmytrozah.profitsoft.domain.entity.BookUploadJobResultData;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+import java.util.UUID;
+
+@Mapper(componentModel = "spring",
+        unmappedSourcePolicy = ReportingPolicy.IGNORE,
+        unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface BookUploadJobMapper {
+
+    @Mapping(target = "results", source = "results")
+    @Mapping(target = "totalPages", source = "totalPages")
+    BookUploadJobDto toDto(BookUploadJobData job, List<BookUploadResultDto> results, int totalPages);
+
+    @Mapping(target = "id", source = "bookId")
+    BookInfoDto toInfoDto(BookUploadJobResultData result);
+
+    @Mapping(target = "bookInfo", source = "result")
+    BookUploadResultDto toResultDto(BookUploadJobResultData result);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "jobId", source = "jobId")
+    @Mapping(target = "rowNum", source = "rowNum")
+    @Mapping(target = "bookId", source = "dto.bookInfo.id")
+    @Mapping(target = "title", source = "dto.bookInfo.title")
+    @Mapping(target = "authorCanonicalName", source = "dto.bookInfo.authorCanonicalName")
+    @Mapping(target = "authorId", source = "dto.bookInfo.authorId")
+    @Mapping(target = "outcome", source = "dto.outcome")
+    BookUploadJobResultData toEntity(BookUploadResultDto dto, UUID jobId, long rowNum);
+}
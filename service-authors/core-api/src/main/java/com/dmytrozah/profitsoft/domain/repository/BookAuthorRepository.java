@@ -1,9 +1,15 @@
 package com.dmytrozah.profitsoft.domain.repository;
 
 import com.dmytrozah.profitsoft.domain.entity.BookAuthorData;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,4 +24,17 @@ public interface BookAuthorRepository extends JpaRepository<BookAuthorData, Long
     Optional<BookAuthorData> findById(long id);
 
     Optional<BookAuthorData> findByCanonicalName(String canonicalName);
+
+    /**
+     * Page without a count query: one more row than requested is read to tell whether there is a next page
+     */
+    Slice<BookAuthorData> findAllBy(Pageable pageable);
+
+    /**
+     * Bulk counterpart of {@link #existsByCanonicalNameIgnoreCase(String)}.
+     *
+     * @param lowerCaseNames canonical names, already lower-cased by the caller
+     */
+    @Query("select a from BookAuthorData a where lower(a.canonicalName) in :names")
+    List<BookAuthorData> findAllByLowerCanonicalNameIn(@Param("names") Collection<String> lowerCaseNames);
 }
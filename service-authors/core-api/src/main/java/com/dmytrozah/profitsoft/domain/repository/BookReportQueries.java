@@ -0,0 +1,31 @@
+package com.dmytrozah.profitsoft.domain.repository;
+
+import com.dmytrozah.profitsoft.domain.BookIdRange;
+import com.dmytrozah.profitsoft.domain.BookReportRow;
+import com.dmytrozah.profitsoft.domain.BookReportWatermark;
+import com.dmytrozah.profitsoft.domain.dto.ReportColumn;
+import com.dmytrozah.profitsoft.domain.entity.BookData;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Report queries over the books matching a specification. Only the requested columns are selected.
+ */
+public interface BookReportQueries {
+
+    /**
+     * Streams the report rows in id order through a database cursor; has to be consumed inside a transaction
+     */
+    Stream<BookReportRow> streamReportRows(Specification<BookData> spec, List<ReportColumn> columns);
+
+    BookReportWatermark findReportWatermark(Specification<BookData> spec);
+
+    /**
+     * Splits the matching books into at most {@code partitions} id ranges of about the same row
+     * count, bounded by the id quantiles; empty when no book matches
+     */
+    List<BookIdRange> findIdPartitions(Specification<BookData> spec, int partitions);
+
+}
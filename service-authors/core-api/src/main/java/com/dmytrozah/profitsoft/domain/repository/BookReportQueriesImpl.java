@@ -0,0 +1,134 @@
+package com.dmytrozah.profitsoft.domain.repository;
+
+import com.dmytrozah.profitsoft.domain.BookIdRange;
+import com.dmytrozah.profitsoft.domain.BookReportRow;
+import com.dmytrozah.profitsoft.domain.BookReportWatermark;
+import com.dmytrozah.profitsoft.domain.dto.ReportColumn;
+import com.dmytrozah.profitsoft.domain.entity.BookData;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NullPrecedence;
+import org.hibernate.query.SortDirection;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+class BookReportQueriesImpl implements BookReportQueries {
+
+    private static final int REPORT_FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<BookReportRow> streamReportRows(final Specification<BookData> spec,
+                                                  final List<ReportColumn> columns) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        final Root<BookData> root = query.from(BookData.class);
+
+        query.multiselect(columns.stream().<Selection<?>>map(column -> root.get(attribute(column)).alias(column.name()))
+                .toList());
+        query.where(spec.toPredicate(root, query, cb));
+        // A stable order, so that repeated and partitioned reports list the books the same way
+        query.orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, REPORT_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(tuple -> toRow(tuple, columns));
+    }
+
+    @Override
+    public BookReportWatermark findReportWatermark(final Specification<BookData> spec) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        final Root<BookData> root = query.from(BookData.class);
+
+        query.multiselect(cb.max(root.get("lastUpdateTime")), cb.count(root));
+        query.where(spec.toPredicate(root, query, cb));
+
+        final Tuple result = entityManager.createQuery(query).getSingleResult();
+
+        return new BookReportWatermark(result.get(0, Instant.class), result.get(1, Long.class));
+    }
+
+    @Override
+    public List<BookIdRange> findIdPartitions(final Specification<BookData> spec, final int partitions) {
+        final HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        final Root<BookData> root = query.from(BookData.class);
+        final Path<Long> id = root.get("id");
+
+        // min, the inner quantiles and max, all computed by a single scan
+        final List<Selection<?>> bounds = new ArrayList<>(partitions + 1);
+        bounds.add(cb.min(id));
+
+        for (int i = 1; i < partitions; i++) {
+            bounds.add(cb.percentileDisc(cb.literal((double) i / partitions), id,
+                    SortDirection.ASCENDING, NullPrecedence.NONE));
+        }
+
+        bounds.add(cb.max(id));
+
+        query.multiselect(bounds);
+        query.where(spec.toPredicate(root, query, cb));
+
+        final Tuple result = entityManager.createQuery(query).getSingleResult();
+        final List<BookIdRange> ranges = new ArrayList<>(partitions);
+
+        if (result.get(0) == null) {
+            return ranges;
+        }
+
+        long from = result.get(0, Long.class);
+
+        for (int i = 1; i < bounds.size(); i++) {
+            final long to = result.get(i, Long.class);
+
+            // Quantiles repeat when there are fewer books than partitions
+            if (to >= from) {
+                ranges.add(new BookIdRange(from, to));
+                from = to + 1;
+            }
+        }
+
+        return ranges;
+    }
+
+    private static BookReportRow toRow(final Tuple tuple, final List<ReportColumn> columns) {
+        return new BookReportRow(
+                columns.contains(ReportColumn.TITLE) ? tuple.get(ReportColumn.TITLE.name(), String.class) : null,
+                columns.contains(ReportColumn.AUTHOR_CANONICAL_NAME)
+                        ? tuple.get(ReportColumn.AUTHOR_CANONICAL_NAME.name(), String.class) : null,
+                columns.contains(ReportColumn.GENRES) ? tuple.get(ReportColumn.GENRES.name(), String.class) : null,
+                columns.contains(ReportColumn.PUBLICATION)
+                        ? tuple.get(ReportColumn.PUBLICATION.name(), LocalDate.class) : null,
+                columns.contains(ReportColumn.LAST_UPDATE_TIME)
+                        ? tuple.get(ReportColumn.LAST_UPDATE_TIME.name(), Instant.class) : null
+        );
+    }
+
+    private static String attribute(final ReportColumn column) {
+        return switch (column) {
+            case TITLE -> "title";
+            case AUTHOR_CANONICAL_NAME -> "authorCanonicalName";
+            case GENRES -> "genres";
+            case PUBLICATION -> "publication";
+            case LAST_UPDATE_TIME -> "lastUpdateTime";
+        };
+    }
+}
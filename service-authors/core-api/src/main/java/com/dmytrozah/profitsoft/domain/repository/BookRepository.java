@@ -5,13 +5,16 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface BookRepository extends JpaRepository<BookData, Long>,
-        JpaSpecificationExecutor<BookData> {
+        JpaSpecificationExecutor<BookData>, BookReportQueries {
 
     List<BookData> findAllByAuthorId(Long authorId);
 
@@ -23,4 +26,15 @@ public interface BookRepository extends JpaRepository<BookData, Long>,
 
     int countByAuthorId(Long authorId);
 
+    /**
+     * Returns every book whose title and canonical author name are both among the given values.
+     * The result is a superset of the requested (title, author) pairs and has to be matched by the caller.
+     */
+    @Query("""
+            select b from BookData b left join fetch b.author
+            where b.title in :titles and b.authorCanonicalName in :names
+            """)
+    List<BookData> findAllByTitleInAndAuthorCanonicalNameIn(@Param("titles") Collection<String> titles,
+                                                            @Param("names") Collection<String> canonicalNames);
+
 }
@@ -0,0 +1,23 @@
+package com.dmytrozah.profitsoft.domain.repository;
+
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadJobStatus;
+import com.dmytrozah.profitsoft.domain.entity.BookUploadJobData;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BookUploadJobRepository extends JpaRepository<BookUploadJobData, UUID> {
+
+    List<BookUploadJobData> findAllByStatusIn(Collection<UploadJobStatus> statuses);
+
+    Optional<BookUploadJobData> findByIdempotencyKey(String idempotencyKey);
+
+    List<BookUploadJobData> findAllByStatusInAndUpdatedAtBefore(Collection<UploadJobStatus> statuses, Instant threshold);
+
+}
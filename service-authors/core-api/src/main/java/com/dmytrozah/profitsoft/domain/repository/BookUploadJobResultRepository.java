@@ -0,0 +1,31 @@
+package com.dmytrozah.profitsoft.domain.repository;
+
+import com.dmytrozah.profitsoft.domain.dto.book.upload.UploadResultOutcome;
+import com.dmytrozah.profitsoft.domain.entity.BookUploadJobResultData;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BookUploadJobResultRepository extends JpaRepository<BookUploadJobResultData, Long> {
+
+    Page<BookUploadJobResultData> findAllByJobId(UUID jobId, Pageable pageable);
+
+    List<BookUploadJobResultData> findAllByJobIdAndRowNumGreaterThanOrderByRowNum(UUID jobId, long rowNum, Limit limit);
+
+    List<BookUploadJobResultData> findAllByJobIdAndRowNumGreaterThanAndOutcomeNotOrderByRowNum(
+            UUID jobId, long rowNum, UploadResultOutcome outcome, Limit limit);
+
+    @Modifying
+    @Query("delete from BookUploadJobResultData r where r.jobId = :jobId")
+    int deleteAllByJobId(@Param("jobId") UUID jobId);
+
+}
@@ -0,0 +1,27 @@
+package com.dmytrozah.profitsoft.domain.repository.spec;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Row value comparison of the keyset pagination, registered with Hibernate through
+ * {@code META-INF/services}. The criteria API has no tuple comparison, while PostgreSQL only
+ * turns the row form into a single range seek on a {@code (value, id)} index.
+ */
+public class BookKeysetFunctions implements FunctionContributor {
+
+    /**
+     * Whether {@code (value, id)} sorts strictly after {@code (last value, last id)}; rows without
+     * a value never match
+     */
+    public static final String AFTER = "book_keyset_after";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(AFTER,
+                "((?1, ?2) > (?3, ?4))",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.BOOLEAN));
+    }
+}
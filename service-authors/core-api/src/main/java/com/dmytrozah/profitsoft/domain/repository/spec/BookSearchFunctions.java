@@ -0,0 +1,102 @@
+package com.dmytrozah.profitsoft.domain.repository.spec;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.query.ReturnableType;
+import org.hibernate.query.sqm.function.AbstractSqmSelfRenderingFunctionDescriptor;
+import org.hibernate.query.sqm.produce.function.StandardArgumentsValidators;
+import org.hibernate.query.sqm.produce.function.StandardFunctionArgumentTypeResolvers;
+import org.hibernate.query.sqm.produce.function.StandardFunctionReturnTypeResolvers;
+import org.hibernate.sql.ast.SqlAstTranslator;
+import org.hibernate.sql.ast.spi.SqlAppender;
+import org.hibernate.sql.ast.tree.SqlAstNode;
+import org.hibernate.sql.ast.tree.expression.ColumnReference;
+import org.hibernate.sql.ast.tree.expression.Expression;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.List;
+
+/**
+ * Full-text search functions over the generated {@code books.search_vector} column, registered
+ * with Hibernate through {@code META-INF/services}. Queries are parsed with
+ * {@code websearch_to_tsquery}, so quoted phrases, {@code or} and {@code -word} work as in web
+ * search engines.
+ * <p>
+ * The column is not mapped, loading books would read and parse the whole vector. The functions
+ * take any column of the searched books row instead and render the vector column of its table.
+ */
+public class BookSearchFunctions implements FunctionContributor {
+
+    /**
+     * Whether a book matches the search terms
+     */
+    public static final String MATCH = "book_search_match";
+
+    /**
+     * {@code ts_rank} of a book for the search terms
+     */
+    public static final String RANK = "book_search_rank";
+
+    private static final String COLUMN = "search_vector";
+
+    // Has to be the configuration the search_vector column is generated with
+    private static final String CONFIG = "'simple'";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        final BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        functionContributions.getFunctionRegistry().register(MATCH, new SearchVectorFunction(MATCH,
+                types.resolve(StandardBasicTypes.BOOLEAN), "(", " @@ websearch_to_tsquery(" + CONFIG + ", ", "))"));
+        functionContributions.getFunctionRegistry().register(RANK, new SearchVectorFunction(RANK,
+                types.resolve(StandardBasicTypes.FLOAT), "ts_rank(", ", websearch_to_tsquery(" + CONFIG + ", ", "))"));
+    }
+
+    /**
+     * Renders {@code prefix vector infix terms suffix}, the vector being the search_vector column
+     * of the table the first argument belongs to
+     */
+    private static final class SearchVectorFunction extends AbstractSqmSelfRenderingFunctionDescriptor {
+
+        private final String prefix;
+
+        private final String infix;
+
+        private final String suffix;
+
+        SearchVectorFunction(String name, BasicType<?> type, String prefix, String infix, String suffix) {
+            super(name, StandardArgumentsValidators.exactly(2),
+                    StandardFunctionReturnTypeResolvers.invariant(type), StandardFunctionArgumentTypeResolvers.NULL);
+            this.prefix = prefix;
+            this.infix = infix;
+            this.suffix = suffix;
+        }
+
+        @Override
+        public void render(SqlAppender sqlAppender,
+                           List<? extends SqlAstNode> arguments,
+                           ReturnableType<?> returnType,
+                           SqlAstTranslator<?> walker) {
+            final ColumnReference row = arguments.get(0) instanceof Expression expression
+                    ? expression.getColumnReference() : null;
+
+            if (row == null) {
+                throw new IllegalArgumentException(this.getName() + " expects a column of the books table");
+            }
+
+            sqlAppender.appendSql(prefix);
+
+            if (row.getQualifier() != null) {
+                sqlAppender.appendSql(row.getQualifier());
+                sqlAppender.appendSql('.');
+            }
+
+            sqlAppender.appendSql(COLUMN);
+            sqlAppender.appendSql(infix);
+            arguments.get(1).accept(walker);
+            sqlAppender.appendSql(suffix);
+        }
+    }
+}
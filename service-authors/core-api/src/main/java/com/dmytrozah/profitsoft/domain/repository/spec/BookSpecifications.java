@@ -1,14 +1,25 @@
 package com.dmytrozah.profitsoft.domain.repository.spec;
 
+import com.dmytrozah.profitsoft.domain.dto.ReportGenerationDto;
+import com.dmytrozah.profitsoft.domain.dto.book.query.BookDtoAttribute;
+import com.dmytrozah.profitsoft.domain.dto.book.query.BookQueryCursor;
 import com.dmytrozah.profitsoft.domain.dto.book.query.BookQueryDto;
 import com.dmytrozah.profitsoft.domain.dto.book.query.BookQueryDtoFilter;
-import com.dmytrozah.profitsoft.domain.entity.BookAuthorData;
+import com.dmytrozah.profitsoft.domain.dto.book.query.BookSortAttribute;
 import com.dmytrozah.profitsoft.domain.entity.BookData;
-import jakarta.persistence.criteria.Join;
-import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,43 +31,194 @@ public final class BookSpecifications {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
+            // Compared on the foreign key, so that idx_books_author_id applies without a join
             if (dto.getAuthorId() != null && !dto.getAuthorId().equals("-1")) {
-                Join<BookData, BookAuthorData> authorJoin =
-                        root.join("author", JoinType.INNER);
-
                 predicates.add(
                         cb.equal(
-                                authorJoin.get("id"),
+                                root.get("author").get("id"),
                                 Long.parseLong(dto.getAuthorId())
                         )
                 );
             }
 
-            if (dto.getFilters() != null) {
-                for (BookQueryDtoFilter filter : dto.getFilters()) {
+            addFilters(predicates, dto.getFilters(), root, cb);
+
+            // Replaced by the pageable sort when one is requested, and dropped from count queries
+            final String terms = searchTerms(dto.getFilters());
 
-                    if (filter.value() == null) continue;
+            if (terms != null && !Long.class.equals(query.getResultType())) {
+                query.orderBy(
+                        cb.desc(cb.function(BookSearchFunctions.RANK, Float.class,
+                                root.get("id"), value(cb, terms))),
+                        cb.asc(root.get("id"))
+                );
+            }
 
-                    switch (filter.attribute()) {
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
 
-                        case TITLE -> predicates.add(
-                                cb.like(
-                                        cb.lower(root.get("title")),
-                                        "%" + filter.value().toString().toLowerCase() + "%"
-                                )
-                        );
+    /**
+     * Terms of the SEARCH filter, {@code null} when the query has none
+     */
+    public static String searchTerms(List<BookQueryDtoFilter> filters) {
+        if (filters == null) {
+            return null;
+        }
 
-                        case AUTHOR_CANONICAL_NAME -> predicates.add(
-                                cb.like(
-                                        cb.lower(root.get("authorCanonicalName")),
-                                        filter.value().toString().toLowerCase()
-                                )
-                        );
-                    }
-                }
+        return filters.stream()
+                .filter(filter -> filter.attribute() == BookDtoAttribute.SEARCH && filter.value() != null)
+                .map(filter -> filter.value().toString())
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Books of a report; the author is compared on the foreign key, without a join
+     */
+    public static Specification<BookData> fromReport(ReportGenerationDto dto) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (dto.getAuthorId() != null) {
+                predicates.add(cb.equal(root.get("author").get("id"), dto.getAuthorId()));
             }
 
+            addFilters(predicates, dto.getFilters(), root, cb);
+
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    public static Specification<BookData> idBetween(long fromId, long toId) {
+        return (root, query, cb) -> cb.between(root.get("id"), fromId, toId);
+    }
+
+    /**
+     * Books strictly after the cursor in {@code (sort value, id)} order, compared as a row value
+     * so that a {@code (value, id)} index is scanned from the cursor on. A cursor with a sort value
+     * only reaches the books that have one; those without come last, as in the ascending order of
+     * PostgreSQL, and are read through {@link #withoutValue} once the range is exhausted.
+     */
+    public static Specification<BookData> after(BookQueryCursor cursor) {
+        return (root, query, cb) -> {
+            final Path<Long> id = root.get("id");
+
+            if (cursor.sort() == BookSortAttribute.ID) {
+                return cb.greaterThan(id, cursor.id());
+            }
+
+            final Path<Comparable<Object>> value = root.get(cursor.sort().getAttribute());
+
+            if (cursor.value() == null) {
+                return cb.and(cb.isNull(value), cb.greaterThan(id, cursor.id()));
+            }
+
+            return cb.isTrue(cb.function(BookKeysetFunctions.AFTER, Boolean.class,
+                    value, id, value(cb, sortValue(cursor)), value(cb, cursor.id())));
+        };
+    }
+
+    /**
+     * Books without a value for the sort, which follow all the others
+     */
+    public static Specification<BookData> withoutValue(BookSortAttribute sort) {
+        return (root, query, cb) -> cb.isNull(root.get(sort.getAttribute()));
+    }
+
+    private static void addFilters(List<Predicate> predicates,
+                                   List<BookQueryDtoFilter> filters,
+                                   Root<BookData> root,
+                                   CriteriaBuilder cb) {
+        if (filters == null) {
+            return;
+        }
+
+        for (BookQueryDtoFilter filter : filters) {
+
+            if (filter.value() == null) continue;
+
+            switch (filter.attribute()) {
+
+                // lower(title) is covered by the trigram index idx_books_lower_title_trgm
+                case TITLE -> predicates.add(
+                        cb.like(
+                                cb.lower(root.get("title")),
+                                "%" + filter.value().toString().toLowerCase() + "%"
+                        )
+                );
+
+                case AUTHOR_CANONICAL_NAME -> predicates.add(
+                        authorNameMatches(root, cb, filter.value().toString().toLowerCase())
+                );
+
+                case GENRE -> predicates.add(
+                        cb.like(
+                                cb.lower(root.get("genres")),
+                                "%" + filter.value().toString().trim().toLowerCase() + "%"
+                        )
+                );
+
+                case PUBLISHED_FROM -> predicates.add(
+                        cb.greaterThanOrEqualTo(root.get("publication"), parseDate(filter))
+                );
+
+                case PUBLISHED_TO -> predicates.add(
+                        cb.lessThanOrEqualTo(root.get("publication"), parseDate(filter))
+                );
+
+                // Answered by the GIN index on the generated search_vector column
+                case SEARCH -> predicates.add(
+                        cb.isTrue(cb.function(BookSearchFunctions.MATCH, Boolean.class,
+                                root.get("id"), value(cb, filter.value().toString())))
+                );
+            }
+        }
+    }
+
+    // Bound as a parameter rather than rendered as a literal
+    private static <T> Expression<T> value(CriteriaBuilder cb, T value) {
+        return ((HibernateCriteriaBuilder) cb).value(value);
+    }
+
+    /**
+     * Plain names are compared for equality, patterns with {@code %} or {@code _} use LIKE; both
+     * are answered by the {@code text_pattern_ops} index on lower(author_canonical_name)
+     */
+    private static Predicate authorNameMatches(Root<BookData> root, CriteriaBuilder cb, String name) {
+        final Expression<String> lowerName = cb.lower(root.get("authorCanonicalName"));
+
+        if (name.indexOf('%') < 0 && name.indexOf('_') < 0) {
+            return cb.equal(lowerName, name);
+        }
+
+        return cb.like(lowerName, name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> sortValue(BookQueryCursor cursor) {
+        try {
+            final Comparable<?> value = switch (cursor.sort()) {
+                case ID -> cursor.id();
+                case TITLE -> cursor.value();
+                case PUBLICATION -> LocalDate.parse(cursor.value());
+                // Bound as a timestamp without time zone like the column, which holds the instants in
+                // the session time zone the driver sets from the JVM; a timestamptz parameter would
+                // cast the column and miss its index
+                case LAST_UPDATE_TIME -> LocalDateTime.ofInstant(Instant.parse(cursor.value()), ZoneId.systemDefault());
+            };
+
+            return (Comparable<Object>) value;
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor value " + cursor.value());
+        }
+    }
+
+    private static LocalDate parseDate(BookQueryDtoFilter filter) {
+        try {
+            return LocalDate.parse(filter.value().toString());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date for %s: %s".formatted(filter.attribute(), filter.value()));
+        }
+    }
 }
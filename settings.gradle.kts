@@ -4,4 +4,5 @@ include("gateway")
 include("service-email")
 
 include(":service-authors:core-api")
-include(":service-authors:app")
\ No newline at end of file
+include(":service-authors:app")
+include(":service-authors:benchmarks")
\ No newline at end of file